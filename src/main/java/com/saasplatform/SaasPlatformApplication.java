@@ -3,12 +3,14 @@ package com.saasplatform;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.quartz.QuartzAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = {
     QuartzAutoConfiguration.class
 })
 @EnableScheduling
+@EnableAsync
 public class SaasPlatformApplication {
 
     public static void main(String[] args) {
@@ -1,10 +1,13 @@
 package com.saasplatform.config;
 
+import com.saasplatform.tenant.TenantEntityManagerInitializer;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -25,5 +28,20 @@ public class JpaConfig {
             return Optional.of(authentication.getName());
         };
     }
-}
 
+    /**
+     * Enable the tenant filter on every EntityManager created while a tenant is bound
+     */
+    @Bean
+    public static BeanPostProcessor tenantEntityManagerInitializerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean entityManagerFactory) {
+                    entityManagerFactory.setEntityManagerInitializer(new TenantEntityManagerInitializer());
+                }
+                return bean;
+            }
+        };
+    }
+}
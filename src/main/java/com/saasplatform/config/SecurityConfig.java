@@ -2,7 +2,10 @@ package com.saasplatform.config;
 
 import com.saasplatform.security.JwtAuthenticationFilter;
 import com.saasplatform.security.JwtTokenProvider;
+import com.saasplatform.tenant.TenantFilter;
 import com.saasplatform.security.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -53,13 +56,24 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt-strength:10}") int strength) {
+        // Hashes with a lower cost are upgraded on the next successful login
+        return new BCryptPasswordEncoder(strength);
     }
     
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService userDetailsService) {
-        return new JwtAuthenticationFilter(tokenProvider, userDetailsService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtTokenProvider tokenProvider,
+                                                           CustomUserDetailsService userDetailsService,
+                                                           @Value("${jwt.stateless-auth.enabled:false}") boolean statelessAuthentication) {
+        return new JwtAuthenticationFilter(tokenProvider, userDetailsService, statelessAuthentication);
+    }
+
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(JwtAuthenticationFilter filter) {
+        // Authenticate before the tenant is resolved, so users are pinned to their own tenant
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(TenantFilter.ORDER - 1);
+        return registration;
     }
 
     @Bean
@@ -0,0 +1,31 @@
+package com.saasplatform.config;
+
+import com.saasplatform.tenant.TenantRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Tenant-routed data source, enabled with app.tenant.routing.enabled. The shared pool is
+ * configured from spring.datasource as usual; dedicated pools are added per placement.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.tenant.routing", name = "enabled", havingValue = "true")
+public class TenantDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource sharedDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public TenantRoutingDataSource dataSource(HikariDataSource sharedDataSource) {
+        return new TenantRoutingDataSource(sharedDataSource);
+    }
+}
@@ -1,58 +0,0 @@
-package com.saasplatform.config;
-
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
-
-@Component
-@Slf4j
-public class TenantInterceptor implements HandlerInterceptor {
-
-    private static final String TENANT_HEADER = "X-Tenant-ID";
-    private static final ThreadLocal<String> currentTenant = new ThreadLocal<>();
-
-    @Override
-    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        String tenantId = resolveTenantId(request);
-        if (tenantId != null) {
-            currentTenant.set(tenantId);
-            log.debug("Tenant resolved: {}", tenantId);
-        }
-        return true;
-    }
-
-    @Override
-    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
-        currentTenant.remove();
-    }
-
-    private String resolveTenantId(HttpServletRequest request) {
-        // First try header
-        String tenantId = request.getHeader(TENANT_HEADER);
-        if (tenantId != null && !tenantId.trim().isEmpty()) {
-            return tenantId.trim();
-        }
-
-        // Then try subdomain
-        String host = request.getServerName();
-        if (host.contains(".")) {
-            String subdomain = host.substring(0, host.indexOf("."));
-            if (!subdomain.equals("www") && !subdomain.equals("api")) {
-                return subdomain;
-            }
-        }
-
-        return null;
-    }
-
-    public static String getCurrentTenant() {
-        return currentTenant.get();
-    }
-
-    public static void setCurrentTenant(String tenantId) {
-        currentTenant.set(tenantId);
-    }
-}
-
@@ -2,7 +2,9 @@ package com.saasplatform.controller;
 
 import com.saasplatform.entity.Booking;
 import com.saasplatform.entity.Quote;
+import com.saasplatform.security.PermissionSnapshot;
 import com.saasplatform.service.ApprovalService;
+import com.saasplatform.tenant.CurrentTenant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -23,16 +25,10 @@ public class ApprovalController {
     @PostMapping("/quotes/{id}/submit")
     public ResponseEntity<Quote> submitQuoteForApproval(
             @PathVariable Long id,
-            @RequestParam(defaultValue = "default") String tenantId,
-            @RequestParam String submitterEmail) {
+            @CurrentTenant String tenantId) {
         
         try {
-            // In a real app, you'd get the user from the security context
-            // For now, we'll create a mock user
-            com.saasplatform.entity.User submitter = new com.saasplatform.entity.User();
-            submitter.setEmail(submitterEmail);
-            
-            Quote quote = approvalService.submitQuoteForApproval(id, tenantId, submitter);
+            Quote quote = approvalService.submitQuoteForApproval(id, tenantId, PermissionSnapshot.current());
             return ResponseEntity.ok(quote);
         } catch (Exception e) {
             log.error("Error submitting quote for approval: {}", id, e);
@@ -43,14 +39,10 @@ public class ApprovalController {
     @PostMapping("/quotes/{id}/approve")
     public ResponseEntity<Quote> approveQuote(
             @PathVariable Long id,
-            @RequestParam(defaultValue = "default") String tenantId,
-            @RequestParam String approverEmail) {
+            @CurrentTenant String tenantId) {
         
         try {
-            com.saasplatform.entity.User approver = new com.saasplatform.entity.User();
-            approver.setEmail(approverEmail);
-            
-            Quote quote = approvalService.approveQuote(id, tenantId, approver);
+            Quote quote = approvalService.approveQuote(id, tenantId, PermissionSnapshot.current());
             return ResponseEntity.ok(quote);
         } catch (Exception e) {
             log.error("Error approving quote: {}", id, e);
@@ -61,15 +53,11 @@ public class ApprovalController {
     @PostMapping("/quotes/{id}/reject")
     public ResponseEntity<Quote> rejectQuote(
             @PathVariable Long id,
-            @RequestParam(defaultValue = "default") String tenantId,
-            @RequestParam String approverEmail,
+            @CurrentTenant String tenantId,
             @RequestParam String rejectionReason) {
         
         try {
-            com.saasplatform.entity.User approver = new com.saasplatform.entity.User();
-            approver.setEmail(approverEmail);
-            
-            Quote quote = approvalService.rejectQuote(id, tenantId, approver, rejectionReason);
+            Quote quote = approvalService.rejectQuote(id, tenantId, PermissionSnapshot.current(), rejectionReason);
             return ResponseEntity.ok(quote);
         } catch (Exception e) {
             log.error("Error rejecting quote: {}", id, e);
@@ -81,14 +69,10 @@ public class ApprovalController {
     @PostMapping("/bookings/{id}/submit")
     public ResponseEntity<Booking> submitBookingForApproval(
             @PathVariable Long id,
-            @RequestParam(defaultValue = "default") String tenantId,
-            @RequestParam String submitterEmail) {
+            @CurrentTenant String tenantId) {
         
         try {
-            com.saasplatform.entity.User submitter = new com.saasplatform.entity.User();
-            submitter.setEmail(submitterEmail);
-            
-            Booking booking = approvalService.submitBookingForApproval(id, tenantId, submitter);
+            Booking booking = approvalService.submitBookingForApproval(id, tenantId, PermissionSnapshot.current());
             return ResponseEntity.ok(booking);
         } catch (Exception e) {
             log.error("Error submitting booking for approval: {}", id, e);
@@ -99,14 +83,10 @@ public class ApprovalController {
     @PostMapping("/bookings/{id}/approve")
     public ResponseEntity<Booking> approveBooking(
             @PathVariable Long id,
-            @RequestParam(defaultValue = "default") String tenantId,
-            @RequestParam String approverEmail) {
+            @CurrentTenant String tenantId) {
         
         try {
-            com.saasplatform.entity.User approver = new com.saasplatform.entity.User();
-            approver.setEmail(approverEmail);
-            
-            Booking booking = approvalService.approveBooking(id, tenantId, approver);
+            Booking booking = approvalService.approveBooking(id, tenantId, PermissionSnapshot.current());
             return ResponseEntity.ok(booking);
         } catch (Exception e) {
             log.error("Error approving booking: {}", id, e);
@@ -117,15 +97,11 @@ public class ApprovalController {
     @PostMapping("/bookings/{id}/reject")
     public ResponseEntity<Booking> rejectBooking(
             @PathVariable Long id,
-            @RequestParam(defaultValue = "default") String tenantId,
-            @RequestParam String approverEmail,
+            @CurrentTenant String tenantId,
             @RequestParam String rejectionReason) {
         
         try {
-            com.saasplatform.entity.User approver = new com.saasplatform.entity.User();
-            approver.setEmail(approverEmail);
-            
-            Booking booking = approvalService.rejectBooking(id, tenantId, approver, rejectionReason);
+            Booking booking = approvalService.rejectBooking(id, tenantId, PermissionSnapshot.current(), rejectionReason);
             return ResponseEntity.ok(booking);
         } catch (Exception e) {
             log.error("Error rejecting booking: {}", id, e);
@@ -136,7 +112,7 @@ public class ApprovalController {
     // Pending Approvals List
     @GetMapping("/pending")
     public ResponseEntity<Object> getPendingApprovals(
-            @RequestParam(defaultValue = "default") String tenantId) {
+            @CurrentTenant String tenantId) {
         
         try {
             // This would return a summary of pending approvals
@@ -2,20 +2,32 @@ package com.saasplatform.controller;
 
 import com.saasplatform.dto.LoginRequest;
 import com.saasplatform.entity.User;
+import com.saasplatform.service.PermissionService;
+import com.saasplatform.service.TouchUpdateBuffer;
 import com.saasplatform.service.UserService;
 import com.saasplatform.security.JwtTokenProvider;
+import com.saasplatform.security.LoginAttemptLimiter;
+import com.saasplatform.security.PasswordHashingExecutor;
+import com.saasplatform.security.SecurityUser;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -27,45 +39,65 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
     private final UserService userService;
+    private final PermissionService permissionService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final TouchUpdateBuffer touchUpdateBuffer;
 
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@RequestBody LoginRequest loginRequest,
+                                                                 HttpServletRequest request) {
+        // Rejected before any user lookup or password check; the remote address is the client
+        // resolved from forwarded headers of trusted proxies (server.forward-headers-strategy)
+        long retryAfterSeconds = loginAttemptLimiter.tryAcquire(loginRequest.getEmail(), request.getRemoteAddr());
+        if (retryAfterSeconds > 0) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body("Too many login attempts, please retry later"));
+        }
+
+        CompletableFuture<Authentication> authentication;
         try {
-            Authentication authentication = authenticationManager.authenticate(
+            // BCrypt runs on the dedicated hashing pool, releasing the request thread meanwhile
+            authentication = passwordHashingExecutor.submit(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                     loginRequest.getEmail(),
                     loginRequest.getPassword()
                 )
-            );
-
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = tokenProvider.generateToken(authentication);
+            ));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Too many login attempts in progress, please retry"));
+        }
 
-            // Get user details from database
-            User user = userService.findByEmail(loginRequest.getEmail());
-            if (user == null) {
-                return ResponseEntity.badRequest().body("User not found");
+        return authentication.<ResponseEntity<?>>handle((result, ex) -> {
+            if (ex != null) {
+                log.error("Authentication failed for user: {}", loginRequest.getEmail(), ex);
+                return ResponseEntity.badRequest().body("Invalid email or password");
             }
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("accessToken", jwt);
-            response.put("refreshToken", tokenProvider.generateRefreshToken(user.getEmail()));
-            response.put("user", Map.of(
-                "id", user.getId(),
-                "email", user.getEmail(),
-                "firstName", user.getFirstName(),
-                "lastName", user.getLastName(),
-                "status", user.getStatus().toString(),
-                "roles", user.getRoles().stream()
-                    .map(role -> role.getName())
-                    .collect(Collectors.toList())
-            ));
+            return ResponseEntity.ok(loginResponse(result));
+        });
+    }
 
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Authentication failed for user: {}", loginRequest.getEmail(), e);
-            return ResponseEntity.badRequest().body("Invalid email or password");
-        }
+    private Map<String, Object> loginResponse(Authentication authentication) {
+        // Reuse the principal loaded during authentication instead of querying the user again
+        SecurityUser user = (SecurityUser) authentication.getPrincipal();
+        touchUpdateBuffer.touch(TouchUpdateBuffer.Touch.USER_LAST_LOGIN, user.getTenantId(), user.getId(),
+                LocalDateTime.now());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("accessToken", tokenProvider.generateToken(user));
+        response.put("refreshToken", tokenProvider.generateRefreshToken(user.getEmail()));
+        response.put("user", Map.of(
+            "id", user.getId(),
+            "email", user.getEmail(),
+            "firstName", user.getFirstName(),
+            "lastName", user.getLastName(),
+            "status", user.getStatus(),
+            "roles", List.copyOf(user.getRoles())
+        ));
+        return response;
     }
 
     @GetMapping("/health")
@@ -73,12 +105,32 @@ public class AuthController {
         return ResponseEntity.ok("Auth service is running");
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                    @RequestBody(required = false) LoginRequest logoutRequest) {
+        try {
+            String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                    ? authorization.substring(7) : null;
+            if (accessToken == null || !tokenProvider.revokeToken(accessToken)) {
+                return ResponseEntity.badRequest().body("Invalid access token");
+            }
+            if (logoutRequest != null && logoutRequest.getRefreshToken() != null) {
+                tokenProvider.revokeToken(logoutRequest.getRefreshToken());
+            }
+            return ResponseEntity.ok("Logged out successfully");
+        } catch (Exception e) {
+            log.error("Logout failed", e);
+            return ResponseEntity.badRequest().body("Logout failed");
+        }
+    }
+
     @PostMapping("/refresh")
     public ResponseEntity<?> refreshToken(@RequestBody LoginRequest refreshRequest) {
         try {
             // Validate the refresh token
-            if (tokenProvider.validateToken(refreshRequest.getRefreshToken())) {
-                String email = tokenProvider.getUsernameFromToken(refreshRequest.getRefreshToken());
+            Claims refreshClaims = tokenProvider.getVerifiedClaims(refreshRequest.getRefreshToken());
+            if (refreshClaims != null && !tokenProvider.isSecurityEpochStale(refreshClaims)) {
+                String email = refreshClaims.getSubject();
                 User user = userService.findByEmail(email);
                 
                 if (user == null) {
@@ -86,7 +138,9 @@ public class AuthController {
                 }
 
                 // Generate new access token
-                String newAccessToken = tokenProvider.generateToken(email);
+                Set<String> roles = permissionService.getRoleNames(user);
+                String newAccessToken = tokenProvider.generateToken(
+                        SecurityUser.from(user, roles, permissionService.getUserPermissions(user)));
                 
                 Map<String, Object> response = new HashMap<>();
                 response.put("accessToken", newAccessToken);
@@ -96,9 +150,7 @@ public class AuthController {
                     "firstName", user.getFirstName(),
                     "lastName", user.getLastName(),
                     "status", user.getStatus().toString(),
-                    "roles", user.getRoles().stream()
-                        .map(role -> role.getName())
-                        .collect(Collectors.toList())
+                    "roles", List.copyOf(roles)
                 ));
 
                 return ResponseEntity.ok(response);
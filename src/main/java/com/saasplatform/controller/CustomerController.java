@@ -1,13 +1,35 @@
 package com.saasplatform.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.saasplatform.dto.BatchPatchRequest;
+import com.saasplatform.dto.CursorPage;
+import com.saasplatform.dto.CustomerFilter;
+import com.saasplatform.dto.ImportJobStatus;
 import com.saasplatform.entity.Customer;
+import com.saasplatform.service.CustomerExportService;
+import com.saasplatform.service.CustomerImportService;
 import com.saasplatform.service.CustomerService;
+import com.saasplatform.tenant.CurrentTenant;
+import com.saasplatform.tenant.TenantChangeCounters;
+import com.saasplatform.tenant.TenantContext;
+import com.saasplatform.tenant.TenantDescriptor;
+import com.saasplatform.util.EntityTags;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/customers")
@@ -17,42 +39,167 @@ import java.util.List;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final CustomerImportService customerImportService;
+    private final CustomerExportService customerExportService;
+    private final TenantChangeCounters tenantChangeCounters;
 
+    /**
+     * Unpaged listing; all given filter parameters are combined. Prefer passing limit for paging.
+     */
     @GetMapping
     public ResponseEntity<List<Customer>> getAllCustomers(
-            @RequestParam(defaultValue = "default") String tenantId,
-            @RequestParam(required = false) String search,
-            @RequestParam(required = false) String status,
-            @RequestParam(required = false) String type) {
+            @CurrentTenant String tenantId,
+            CustomerFilter filter,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
         
         try {
+            String etag = tenantChangeCounters.listETag(tenantId, "customers", request.getQueryString());
+            if (EntityTags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             List<Customer> customers;
             
-            if (search != null && !search.trim().isEmpty()) {
-                customers = customerService.searchCustomers(tenantId, search);
-            } else if (status != null && !status.trim().isEmpty()) {
-                customers = customerService.getCustomersByStatus(tenantId, Customer.CustomerStatus.valueOf(status.toUpperCase()));
-            } else if (type != null && !type.trim().isEmpty()) {
-                customers = customerService.getCustomersByType(tenantId, Customer.CustomerType.valueOf(type.toUpperCase()));
+            if (filter.hasAttributeCriteria()) {
+                customers = customerService.findCustomers(tenantId, filter);
+            } else if (filter.hasSearch()) {
+                customers = customerService.searchCustomers(tenantId, filter.getSearch());
             } else {
                 customers = customerService.getAllCustomers(tenantId);
             }
             
-            return ResponseEntity.ok(customers);
+            return ResponseEntity.ok().eTag(etag).body(customers);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid customer filter: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error fetching customers", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * Keyset-paginated listing, selected by passing {@code limit}, filtered by any combination
+     * of status, type, industry, revenue and employee ranges, follow-up window and search.
+     * Follow nextCursor/prevCursor with the same sort, direction and filter; the total is only
+     * counted when includeTotal is set.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<Customer>> getCustomerPage(
+            @CurrentTenant String tenantId,
+            CustomerFilter filter,
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
+
+        try {
+            String etag = tenantChangeCounters.listETag(tenantId, "customers", request.getQueryString());
+            if (EntityTags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag)
+                    .body(customerService.getCustomerPage(tenantId, filter, sort, direction, cursor, limit, includeTotal));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid customer page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error fetching customer page", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Start a bulk import from a CSV (text/csv, with a header row) or NDJSON
+     * (application/x-ndjson) request body; poll the returned job for progress
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ImportJobStatus> importCustomers(
+            @CurrentTenant String tenantId,
+            HttpServletRequest request) {
+
+        try {
+            CustomerImportService.Format format = CustomerImportService.Format.fromContentType(request.getContentType());
+            ImportJobStatus job = customerImportService.startImport(tenantId, format, request.getInputStream());
+            return ResponseEntity.accepted().body(job);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected customer import: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            log.warn("Customer import queue is full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            log.error("Error starting customer import", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobStatus> getImportStatus(
+            @CurrentTenant String tenantId,
+            @PathVariable String jobId) {
+
+        return customerImportService.getStatus(tenantId, jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Stream all customers as CSV or NDJSON without materializing them; gzip=true compresses
+     * the body and sets Content-Encoding
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @CurrentTenant String tenantId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        CustomerExportService.Format exportFormat;
+        try {
+            exportFormat = CustomerExportService.Format.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // The body is written on an async thread after this method returns
+        TenantDescriptor tenant = TenantContext.getTenant();
+        StreamingResponseBody body = output -> {
+            TenantContext.setTenant(tenant);
+            try {
+                customerExportService.export(tenantId, exportFormat, gzip, output);
+            } finally {
+                TenantContext.clear();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"customers." + exportFormat.getExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Customer> getCustomerById(
-            @RequestParam(defaultValue = "default") String tenantId,
-            @PathVariable Long id) {
+            @CurrentTenant String tenantId,
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         try {
+            if (ifNoneMatch != null) {
+                String current = customerService.getCustomerVersion(tenantId, id).map(EntityTags::strong).orElse(null);
+                if (current != null && EntityTags.matches(ifNoneMatch, current)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+                }
+            }
             return customerService.getCustomerById(tenantId, id)
-                    .map(ResponseEntity::ok)
+                    .map(customer -> ResponseEntity.ok().eTag(EntityTags.strong(customer)).body(customer))
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             log.error("Error fetching customer with id: {}", id, e);
@@ -62,7 +209,7 @@ public class CustomerController {
 
     @PostMapping
     public ResponseEntity<Customer> createCustomer(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @RequestBody Customer customer) {
         
         try {
@@ -76,7 +223,7 @@ public class CustomerController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Customer> updateCustomer(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable Long id,
             @RequestBody Customer customer) {
         
@@ -89,9 +236,83 @@ public class CustomerController {
         }
     }
 
+    /**
+     * JSON merge patch: only the supplied fields change, null clears a field. With If-Match,
+     * the patch is refused with 412 when the customer changed since the client read it.
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Customer> patchCustomer(
+            @CurrentTenant String tenantId,
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch) {
+        
+        try {
+            Customer patchedCustomer = customerService.patchCustomer(tenantId, id, patch, ifMatch);
+            return ResponseEntity.ok().eTag(EntityTags.strong(patchedCustomer)).body(patchedCustomer);
+        } catch (EmptyResultDataAccessException e) {
+            return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch == null) {
+                // Lost a race with a concurrent write; the client can re-read and retry
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            String current = customerService.getCustomerVersion(tenantId, id).map(EntityTags::strong).orElse(null);
+            return current != null
+                    ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(current).build()
+                    : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected patch for customer with id {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error patching customer with id: {}", id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Apply one merge patch to many customers as a single UPDATE, e.g. moving a selection
+     * to another status
+     */
+    @PatchMapping
+    public ResponseEntity<Map<String, Integer>> patchCustomers(
+            @CurrentTenant String tenantId,
+            @RequestBody BatchPatchRequest request) {
+        
+        try {
+            int updated = customerService.patchCustomers(tenantId, request.getIds(), request.getPatch());
+            return ResponseEntity.ok(Map.of("updated", updated));
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected batch customer patch: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error batch patching customers", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Record contact with the customer today; applied asynchronously, so the response carries no body
+     */
+    @PutMapping("/{id}/contact")
+    public ResponseEntity<Void> recordContact(
+            @CurrentTenant String tenantId,
+            @PathVariable Long id) {
+        
+        try {
+            customerService.recordContact(tenantId, id, LocalDate.now());
+            return ResponseEntity.accepted().build();
+        } catch (EmptyResultDataAccessException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error recording contact with customer: {}", id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCustomer(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable Long id) {
         
         try {
@@ -105,7 +326,7 @@ public class CustomerController {
 
     @GetMapping("/check/number/{customerNumber}")
     public ResponseEntity<Boolean> checkCustomerNumberExists(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable String customerNumber) {
         
         try {
@@ -119,7 +340,7 @@ public class CustomerController {
 
     @GetMapping("/check/email/{email}")
     public ResponseEntity<Boolean> checkEmailExists(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable String email) {
         
         try {
@@ -2,6 +2,7 @@ package com.saasplatform.controller;
 
 import com.saasplatform.entity.Notification;
 import com.saasplatform.service.NotificationService;
+import com.saasplatform.tenant.CurrentTenant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -20,7 +21,7 @@ public class NotificationController {
 
     @GetMapping
     public ResponseEntity<List<Notification>> getUserNotifications(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @RequestParam Long userId) {
         
         try {
@@ -34,7 +35,7 @@ public class NotificationController {
 
     @GetMapping("/unread")
     public ResponseEntity<List<Notification>> getUnreadNotifications(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @RequestParam Long userId) {
         
         try {
@@ -48,7 +49,7 @@ public class NotificationController {
 
     @GetMapping("/count")
     public ResponseEntity<Long> getUnreadNotificationCount(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @RequestParam Long userId) {
         
         try {
@@ -62,7 +63,7 @@ public class NotificationController {
 
     @PutMapping("/{id}/read")
     public ResponseEntity<Notification> markAsRead(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable Long id) {
         
         try {
@@ -80,7 +81,7 @@ public class NotificationController {
 
     @PutMapping("/read-all")
     public ResponseEntity<Void> markAllAsRead(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @RequestParam Long userId) {
         
         try {
@@ -94,7 +95,7 @@ public class NotificationController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNotification(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable Long id) {
         
         try {
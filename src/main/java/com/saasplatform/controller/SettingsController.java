@@ -2,8 +2,14 @@ package com.saasplatform.controller;
 
 import com.saasplatform.entity.SystemSettings;
 import com.saasplatform.service.SettingsService;
+import com.saasplatform.tenant.CurrentTenant;
+import com.saasplatform.tenant.TenantChangeCounters;
+import com.saasplatform.util.EntityTags;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,20 +23,27 @@ import java.util.List;
 public class SettingsController {
 
     private final SettingsService settingsService;
+    private final TenantChangeCounters tenantChangeCounters;
 
     @GetMapping
     public ResponseEntity<List<SystemSettings>> getAllSettings(
-            @RequestParam(defaultValue = "default") String tenantId,
-            @RequestParam(required = false) String category) {
+            @CurrentTenant String tenantId,
+            @RequestParam(required = false) String category,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
         
         try {
+            String etag = tenantChangeCounters.listETag(tenantId, "system_settings", request.getQueryString());
+            if (EntityTags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             List<SystemSettings> settings;
             if (category != null && !category.trim().isEmpty()) {
                 settings = settingsService.getSettingsByCategory(tenantId, category);
             } else {
                 settings = settingsService.getAllSettings(tenantId);
             }
-            return ResponseEntity.ok(settings);
+            return ResponseEntity.ok().eTag(etag).body(settings);
         } catch (Exception e) {
             log.error("Error fetching settings", e);
             return ResponseEntity.internalServerError().build();
@@ -39,12 +52,19 @@ public class SettingsController {
 
     @GetMapping("/{key}")
     public ResponseEntity<SystemSettings> getSettingByKey(
-            @RequestParam(defaultValue = "default") String tenantId,
-            @PathVariable String key) {
+            @CurrentTenant String tenantId,
+            @PathVariable String key,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         try {
+            if (ifNoneMatch != null) {
+                String current = settingsService.getSettingVersion(tenantId, key).map(EntityTags::strong).orElse(null);
+                if (current != null && EntityTags.matches(ifNoneMatch, current)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+                }
+            }
             return settingsService.getSettingByKey(tenantId, key)
-                    .map(ResponseEntity::ok)
+                    .map(setting -> ResponseEntity.ok().eTag(EntityTags.strong(setting)).body(setting))
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             log.error("Error fetching setting with key: {}", key, e);
@@ -54,7 +74,7 @@ public class SettingsController {
 
     @PostMapping
     public ResponseEntity<SystemSettings> createSetting(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @RequestBody SystemSettings setting) {
         
         try {
@@ -68,7 +88,7 @@ public class SettingsController {
 
     @PutMapping("/{key}")
     public ResponseEntity<SystemSettings> updateSetting(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable String key,
             @RequestBody SystemSettings setting) {
         
@@ -83,7 +103,7 @@ public class SettingsController {
 
     @DeleteMapping("/{key}")
     public ResponseEntity<Void> deleteSetting(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable String key) {
         
         try {
@@ -97,7 +117,7 @@ public class SettingsController {
 
     @PostMapping("/initialize")
     public ResponseEntity<Void> initializeDefaultSettings(
-            @RequestParam(defaultValue = "default") String tenantId) {
+            @CurrentTenant String tenantId) {
         
         try {
             settingsService.initializeDefaultSettings(tenantId);
@@ -110,7 +130,7 @@ public class SettingsController {
 
     @GetMapping("/value/{key}")
     public ResponseEntity<String> getSettingValue(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable String key,
             @RequestParam(required = false) String defaultValue) {
         
@@ -125,7 +145,7 @@ public class SettingsController {
 
     @GetMapping("/boolean/{key}")
     public ResponseEntity<Boolean> getSettingValueAsBoolean(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable String key,
             @RequestParam(defaultValue = "false") Boolean defaultValue) {
         
@@ -140,7 +160,7 @@ public class SettingsController {
 
     @GetMapping("/integer/{key}")
     public ResponseEntity<Integer> getSettingValueAsInteger(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable String key,
             @RequestParam(defaultValue = "0") Integer defaultValue) {
         
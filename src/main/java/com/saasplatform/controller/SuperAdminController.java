@@ -1,14 +1,16 @@
 package com.saasplatform.controller;
 
+import com.saasplatform.dto.CursorPage;
+import com.saasplatform.dto.UserDirectoryEntry;
+import com.saasplatform.dto.UserDirectoryFilter;
 import com.saasplatform.entity.Company;
-import com.saasplatform.entity.User;
 import com.saasplatform.service.CompanyService;
 import com.saasplatform.service.UserService;
-import com.saasplatform.service.PermissionService;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -19,26 +21,20 @@ import java.util.Map;
 @RequiredArgsConstructor
 @Slf4j
 @CrossOrigin
+// Checked against the caller's permission snapshot; denied requests get 403
+@PreAuthorize("@perm.isSuperAdmin()")
 public class SuperAdminController {
 
     private final CompanyService companyService;
     private final UserService userService;
-    private final PermissionService permissionService;
 
     /**
      * Get all companies (Super Admin only)
      */
     @GetMapping("/companies")
-    public ResponseEntity<List<Company>> getAllCompanies(
-            @RequestParam String adminEmail) {
+    public ResponseEntity<List<Company>> getAllCompanies() {
         
         try {
-            // In a real app, you'd get the user from the security context
-            User admin = userService.findByEmail(adminEmail);
-            if (admin == null || !permissionService.isSuperAdmin(admin)) {
-                return ResponseEntity.status(403).build();
-            }
-
             List<Company> companies = companyService.getAllCompanies();
             return ResponseEntity.ok(companies);
         } catch (Exception e) {
@@ -52,15 +48,9 @@ public class SuperAdminController {
      */
     @GetMapping("/companies/{id}")
     public ResponseEntity<Company> getCompanyById(
-            @PathVariable Long id,
-            @RequestParam String adminEmail) {
+            @PathVariable Long id) {
         
         try {
-            User admin = userService.findByEmail(adminEmail);
-            if (admin == null || !permissionService.isSuperAdmin(admin)) {
-                return ResponseEntity.status(403).build();
-            }
-
             Optional<Company> companyOpt = companyService.getCompanyById(id);
             if (companyOpt.isPresent()) {
                 return ResponseEntity.ok(companyOpt.get());
@@ -78,15 +68,9 @@ public class SuperAdminController {
      */
     @PostMapping("/companies")
     public ResponseEntity<Company> createCompany(
-            @RequestBody Company company,
-            @RequestParam String adminEmail) {
+            @RequestBody Company company) {
         
         try {
-            User admin = userService.findByEmail(adminEmail);
-            if (admin == null || !permissionService.isSuperAdmin(admin)) {
-                return ResponseEntity.status(403).build();
-            }
-
             Company createdCompany = companyService.createCompany(company);
             return ResponseEntity.ok(createdCompany);
         } catch (Exception e) {
@@ -101,15 +85,9 @@ public class SuperAdminController {
     @PutMapping("/companies/{id}")
     public ResponseEntity<Company> updateCompany(
             @PathVariable Long id,
-            @RequestBody Company companyDetails,
-            @RequestParam String adminEmail) {
+            @RequestBody Company companyDetails) {
         
         try {
-            User admin = userService.findByEmail(adminEmail);
-            if (admin == null || !permissionService.isSuperAdmin(admin)) {
-                return ResponseEntity.status(403).build();
-            }
-
             Company updatedCompany = companyService.updateCompany(id, companyDetails);
             if (updatedCompany != null) {
                 return ResponseEntity.ok(updatedCompany);
@@ -127,15 +105,9 @@ public class SuperAdminController {
      */
     @DeleteMapping("/companies/{id}")
     public ResponseEntity<Void> deleteCompany(
-            @PathVariable Long id,
-            @RequestParam String adminEmail) {
+            @PathVariable Long id) {
         
         try {
-            User admin = userService.findByEmail(adminEmail);
-            if (admin == null || !permissionService.isSuperAdmin(admin)) {
-                return ResponseEntity.status(403).build();
-            }
-
             companyService.deleteCompany(id);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
@@ -145,20 +117,22 @@ public class SuperAdminController {
     }
 
     /**
-     * Get all users across all companies (Super Admin only)
+     * Directory of users across all companies (Super Admin only), filtered by company, tenant,
+     * status, role and last-login window. Keyset-paginated in tenant order: follow
+     * nextCursor/prevCursor with the same filter; the total is only counted when includeTotal is set.
      */
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers(
-            @RequestParam String adminEmail) {
+    public ResponseEntity<CursorPage<UserDirectoryEntry>> getAllUsers(
+            UserDirectoryFilter filter,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         try {
-            User admin = userService.findByEmail(adminEmail);
-            if (admin == null || !permissionService.isSuperAdmin(admin)) {
-                return ResponseEntity.status(403).build();
-            }
-
-            List<User> users = userService.getAllUsers("all"); // Special tenant ID for super admin
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(userService.getUserDirectory(filter, cursor, limit, includeTotal));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid user directory request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error fetching all users", e);
             return ResponseEntity.internalServerError().build();
@@ -169,15 +143,9 @@ public class SuperAdminController {
      * Get system overview (Super Admin only)
      */
     @GetMapping("/overview")
-    public ResponseEntity<Map<String, Object>> getSystemOverview(
-            @RequestParam String adminEmail) {
+    public ResponseEntity<Map<String, Object>> getSystemOverview() {
         
         try {
-            User admin = userService.findByEmail(adminEmail);
-            if (admin == null || !permissionService.isSuperAdmin(admin)) {
-                return ResponseEntity.status(403).build();
-            }
-
             // In a real app, you'd calculate these metrics
             Map<String, Object> overview = Map.of(
                 "totalCompanies", companyService.getCompanyCount(),
@@ -198,15 +166,9 @@ public class SuperAdminController {
      */
     @GetMapping("/companies/{id}/stats")
     public ResponseEntity<Map<String, Object>> getCompanyStats(
-            @PathVariable Long id,
-            @RequestParam String adminEmail) {
+            @PathVariable Long id) {
         
         try {
-            User admin = userService.findByEmail(adminEmail);
-            if (admin == null || !permissionService.isSuperAdmin(admin)) {
-                return ResponseEntity.status(403).build();
-            }
-
             // In a real app, you'd calculate actual statistics
             Map<String, Object> stats = Map.of(
                 "companyId", id,
@@ -0,0 +1,62 @@
+package com.saasplatform.controller;
+
+import com.saasplatform.tenant.TenantPlacementService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/super-admin/tenants")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin
+@PreAuthorize("@perm.isSuperAdmin()")
+@ConditionalOnProperty(prefix = "app.tenant.routing", name = "enabled", havingValue = "true")
+public class TenantPlacementController {
+
+    private final TenantPlacementService tenantPlacementService;
+
+    /**
+     * List tenants served from a dedicated schema (Super Admin only)
+     */
+    @GetMapping("/placements")
+    public ResponseEntity<List<TenantPlacementService.Placement>> getPlacements() {
+        return ResponseEntity.ok(tenantPlacementService.getPlacements());
+    }
+
+    /**
+     * Move a tenant into its own schema (Super Admin only); sourceRowsRemoved in the result is
+     * false when the tenant's rows could not be removed from the shared schema
+     */
+    @PostMapping("/{tenantId}/placement")
+    public ResponseEntity<?> moveToSchema(
+            @PathVariable String tenantId,
+            @RequestParam String schema,
+            @RequestParam(required = false) Integer poolSize) {
+        
+        try {
+            return ResponseEntity.ok(tenantPlacementService.moveToSchema(tenantId, schema, poolSize));
+        } catch (Exception e) {
+            log.error("Error moving tenant {} to schema {}", tenantId, schema, e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Move a tenant back to the shared schema (Super Admin only); reports sourceRowsRemoved likewise
+     */
+    @DeleteMapping("/{tenantId}/placement")
+    public ResponseEntity<?> moveToShared(@PathVariable String tenantId) {
+        try {
+            return ResponseEntity.ok(tenantPlacementService.moveToShared(tenantId));
+        } catch (Exception e) {
+            log.error("Error moving tenant {} to the shared schema", tenantId, e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
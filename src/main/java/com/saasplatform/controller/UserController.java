@@ -1,10 +1,25 @@
 package com.saasplatform.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.saasplatform.dto.UserProvisioningReport;
+import com.saasplatform.dto.UserProvisioningRequest;
+import com.saasplatform.dto.UserSuggestion;
 import com.saasplatform.entity.User;
+import com.saasplatform.service.UserProvisioningService;
 import com.saasplatform.service.UserService;
+import com.saasplatform.tenant.CurrentTenant;
+import com.saasplatform.tenant.TenantChangeCounters;
+import com.saasplatform.util.EntityTags;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,14 +32,22 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserProvisioningService userProvisioningService;
+    private final TenantChangeCounters tenantChangeCounters;
 
     @GetMapping
     public ResponseEntity<List<User>> getAllUsers(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) String role) {
+            @RequestParam(required = false) String role,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
         
         try {
+            String etag = tenantChangeCounters.listETag(tenantId, "users", request.getQueryString());
+            if (EntityTags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             List<User> users;
             
             if (search != null && !search.trim().isEmpty()) {
@@ -35,21 +58,46 @@ public class UserController {
                 users = userService.getAllUsers(tenantId);
             }
             
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok().eTag(etag).body(users);
         } catch (Exception e) {
             log.error("Error fetching users", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * People-picker autocomplete: active users whose first name, last name, full name or
+     * email starts with q
+     */
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<UserSuggestion>> typeahead(
+            @CurrentTenant String tenantId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        try {
+            return ResponseEntity.ok(userService.typeahead(tenantId, q, limit));
+        } catch (Exception e) {
+            log.error("Error fetching user suggestions", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(
-            @RequestParam(defaultValue = "default") String tenantId,
-            @PathVariable Long id) {
+            @CurrentTenant String tenantId,
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         try {
+            if (ifNoneMatch != null) {
+                String current = userService.getUserVersion(tenantId, id).map(EntityTags::strong).orElse(null);
+                if (current != null && EntityTags.matches(ifNoneMatch, current)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+                }
+            }
             return userService.getUserById(tenantId, id)
-                    .map(ResponseEntity::ok)
+                    .map(user -> ResponseEntity.ok().eTag(EntityTags.strong(user)).body(user))
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             log.error("Error fetching user with id: {}", id, e);
@@ -59,7 +107,7 @@ public class UserController {
 
     @PostMapping
     public ResponseEntity<User> createUser(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @RequestBody User user) {
         
         try {
@@ -71,9 +119,29 @@ public class UserController {
         }
     }
 
+    /**
+     * Create many users in one call; the report lists each requested user's id or error
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("@perm.has('MANAGE_COMPANY_USERS')")
+    public ResponseEntity<UserProvisioningReport> provisionUsers(
+            @CurrentTenant String tenantId,
+            @RequestBody UserProvisioningRequest request) {
+        
+        try {
+            return ResponseEntity.ok(userProvisioningService.provision(tenantId, request.getUsers()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected bulk user provisioning: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error provisioning users", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable Long id,
             @RequestBody User user) {
         
@@ -86,9 +154,39 @@ public class UserController {
         }
     }
 
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<User> patchUser(
+            @CurrentTenant String tenantId,
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch) {
+        
+        try {
+            User patchedUser = userService.patchUser(tenantId, id, patch, ifMatch);
+            return ResponseEntity.ok().eTag(EntityTags.strong(patchedUser)).body(patchedUser);
+        } catch (EmptyResultDataAccessException e) {
+            return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch == null) {
+                // Lost a race with a concurrent write; the client can re-read and retry
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            String current = userService.getUserVersion(tenantId, id).map(EntityTags::strong).orElse(null);
+            return current != null
+                    ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(current).build()
+                    : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected patch for user with id {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error patching user with id: {}", id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable Long id) {
         
         try {
@@ -102,7 +200,7 @@ public class UserController {
 
     @PostMapping("/{id}/change-password")
     public ResponseEntity<Void> changePassword(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable Long id,
             @RequestBody PasswordChangeRequest request) {
         
@@ -117,7 +215,7 @@ public class UserController {
 
     @PostMapping("/{id}/reset-password")
     public ResponseEntity<Void> resetPassword(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable Long id,
             @RequestBody PasswordResetRequest request) {
         
@@ -132,7 +230,7 @@ public class UserController {
 
     @PutMapping("/{id}/status")
     public ResponseEntity<Void> updateUserStatus(
-            @RequestParam(defaultValue = "default") String tenantId,
+            @CurrentTenant String tenantId,
             @PathVariable Long id,
             @RequestBody UserStatusUpdateRequest request) {
         
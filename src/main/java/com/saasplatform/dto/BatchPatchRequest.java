@@ -0,0 +1,15 @@
+package com.saasplatform.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The same JSON merge patch applied to every listed id
+ */
+@Data
+public class BatchPatchRequest {
+    private List<Long> ids;
+    private JsonNode patch;
+}
@@ -0,0 +1,21 @@
+package com.saasplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Cursors are opaque; totalCount is only filled
+ * when explicitly requested.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private String prevCursor;
+    private Long totalCount;
+}
@@ -0,0 +1,69 @@
+package com.saasplatform.dto;
+
+import com.saasplatform.entity.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Customer list criteria bound from query parameters; every criterion that is set must
+ * match. Ranges are inclusive and may be open on either side.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerFilter {
+    private String status;
+    private String type;
+    private String industry;
+    private BigDecimal minRevenue;
+    private BigDecimal maxRevenue;
+    private Integer minEmployees;
+    private Integer maxEmployees;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate followUpFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate followUpTo;
+    private String search;
+
+    public boolean hasSearch() {
+        return search != null && !search.isBlank();
+    }
+
+    /**
+     * True if any criterion other than the text search is set
+     */
+    public boolean hasAttributeCriteria() {
+        return notBlank(status) || notBlank(type) || notBlank(industry)
+                || minRevenue != null || maxRevenue != null
+                || minEmployees != null || maxEmployees != null
+                || followUpFrom != null || followUpTo != null;
+    }
+
+    public Customer.CustomerStatus statusValue() {
+        return parse(Customer.CustomerStatus.class, status);
+    }
+
+    public Customer.CustomerType typeValue() {
+        return parse(Customer.CustomerType.class, type);
+    }
+
+    private static boolean notBlank(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        if (!notBlank(value)) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + type.getSimpleName() + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.saasplatform.dto;
+
+/**
+ * Identity and optimistic-lock version of a row, enough to build its ETag without loading it
+ */
+public record EntityVersion(Long id, Long version) {
+}
@@ -0,0 +1,36 @@
+package com.saasplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of an asynchronous import. Row numbers count data rows from 1, excluding any
+ * header; errors are capped, failedRows always holds the full count.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportJobStatus {
+    private String jobId;
+    private String status;
+    private String format;
+    private long processedRows;
+    private long importedRows;
+    private long failedRows;
+    private List<RowError> errors;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
@@ -0,0 +1,29 @@
+package com.saasplatform.dto;
+
+import com.saasplatform.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lean row of the super-admin user directory, read as a projection instead of loading
+ * User entities with their company and roles
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserDirectoryEntry {
+    private Long id;
+    private String tenantId;
+    private Long companyId;
+    private String companyName;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private User.UserStatus status;
+    private LocalDateTime lastLogin;
+    private List<String> roles;
+}
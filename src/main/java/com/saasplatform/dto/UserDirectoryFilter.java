@@ -0,0 +1,38 @@
+package com.saasplatform.dto;
+
+import com.saasplatform.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Cross-tenant user directory criteria bound from query parameters; every criterion that is
+ * set must match. The last-login range is inclusive of whole days and may be open on either side.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserDirectoryFilter {
+    private Long companyId;
+    private String tenantId;
+    private String status;
+    private String role;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate lastLoginFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate lastLoginTo;
+
+    public User.UserStatus statusValue() {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return User.UserStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid UserStatus: " + status);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.saasplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk provisioning call, with one result per requested user in request order
+ * (index counts from 0); userId is set for created users, error for rejected ones
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserProvisioningReport {
+    private int requested;
+    private int created;
+    private int failed;
+    private List<Result> results;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Result {
+        private int index;
+        private String email;
+        private Long userId;
+        private String error;
+    }
+}
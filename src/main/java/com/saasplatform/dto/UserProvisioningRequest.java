@@ -0,0 +1,30 @@
+package com.saasplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Accounts to create in one bulk provisioning call. Roles are given by name and default to
+ * STAFF; a password is optional.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserProvisioningRequest {
+    private List<NewUser> users;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class NewUser {
+        private String email;
+        private String firstName;
+        private String lastName;
+        private String phone;
+        private String password;
+        private List<String> roles;
+    }
+}
@@ -0,0 +1,17 @@
+package com.saasplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One people-picker match
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSuggestion {
+    private Long id;
+    private String displayName;
+    private String email;
+}
@@ -1,7 +1,10 @@
 package com.saasplatform.entity;
 
+import com.saasplatform.tenant.TenantChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -10,9 +13,16 @@ import java.time.LocalDateTime;
 
 @Data
 @MappedSuperclass
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, TenantChangeListener.class})
+@FilterDef(name = BaseEntity.TENANT_FILTER,
+        parameters = @ParamDef(name = BaseEntity.TENANT_PARAMETER, type = String.class),
+        defaultCondition = "tenant_id = :" + BaseEntity.TENANT_PARAMETER)
 public abstract class BaseEntity {
 
+    /** Hibernate filter scoping tenant-owned entities to the current tenant */
+    public static final String TENANT_FILTER = "tenantFilter";
+    public static final String TENANT_PARAMETER = "tenantId";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -3,6 +3,7 @@ package com.saasplatform.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -11,6 +12,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "bookings")
 @EqualsAndHashCode(callSuper = true)
+@Filter(name = BaseEntity.TENANT_FILTER)
 public class Booking extends BaseEntity {
 
     @Column(name = "booking_number", nullable = false)
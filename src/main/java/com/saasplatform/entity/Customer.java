@@ -4,18 +4,23 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "customer_number"}))
 @Data
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
+@Filter(name = BaseEntity.TENANT_FILTER)
+@DynamicUpdate
 public class Customer extends BaseEntity {
 
-    @Column(name = "customer_number", nullable = false, unique = true)
+    @Column(name = "customer_number", nullable = false)
     private String customerNumber;
 
     @Column(name = "company_name", nullable = false)
@@ -71,6 +76,7 @@ public class Customer extends BaseEntity {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    // Written behind by TouchUpdateBuffer; not covered by the version or ETags
     @Column(name = "last_contact_date")
     private LocalDate lastContactDate;
 
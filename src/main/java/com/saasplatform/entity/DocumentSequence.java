@@ -0,0 +1,45 @@
+package com.saasplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "document_sequences",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "document_type"}))
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class DocumentSequence extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "document_type", nullable = false)
+    private DocumentType documentType;
+
+    /** First number not yet reserved by any node */
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    public enum DocumentType {
+        CUSTOMER("Customer", "customerNumber"),
+        QUOTE("Quote", "quoteNumber"),
+        BOOKING("Booking", "bookingNumber");
+
+        private final String entityName;
+        private final String numberField;
+
+        DocumentType(String entityName, String numberField) {
+            this.entityName = entityName;
+            this.numberField = numberField;
+        }
+
+        public String getEntityName() {
+            return entityName;
+        }
+
+        public String getNumberField() {
+            return numberField;
+        }
+    }
+}
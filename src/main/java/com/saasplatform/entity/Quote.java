@@ -3,6 +3,7 @@ package com.saasplatform.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,6 +14,7 @@ import java.util.List;
 @Entity
 @Table(name = "quotes")
 @EqualsAndHashCode(callSuper = true)
+@Filter(name = BaseEntity.TENANT_FILTER)
 public class Quote extends BaseEntity {
 
     @Column(name = "quote_number", nullable = false)
@@ -3,6 +3,7 @@ package com.saasplatform.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 
@@ -10,6 +11,7 @@ import java.math.BigDecimal;
 @Entity
 @Table(name = "quote_items")
 @EqualsAndHashCode(callSuper = true)
+@Filter(name = BaseEntity.TENANT_FILTER)
 public class QuoteItem extends BaseEntity {
 
     @Column(name = "description", nullable = false)
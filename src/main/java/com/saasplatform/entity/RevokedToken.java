@@ -0,0 +1,25 @@
+package com.saasplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class RevokedToken extends BaseEntity {
+
+    @Column(name = "jti", nullable = false, unique = true)
+    private String jti;
+
+    @Column(name = "subject")
+    private String subject;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
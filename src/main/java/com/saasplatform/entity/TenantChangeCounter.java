@@ -0,0 +1,22 @@
+package com.saasplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "tenant_change_counters",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "table_name"}))
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class TenantChangeCounter extends BaseEntity {
+
+    @Column(name = "table_name", nullable = false)
+    private String tableName;
+
+    /** Incremented after every committed transaction that wrote the tenant's rows in the table */
+    @Column(name = "counter", nullable = false)
+    private Long counter;
+}
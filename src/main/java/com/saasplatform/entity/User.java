@@ -3,6 +3,10 @@ package com.saasplatform.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -12,6 +16,8 @@ import java.util.Set;
 @Entity
 @Table(name = "users")
 @EqualsAndHashCode(callSuper = true)
+@Filter(name = BaseEntity.TENANT_FILTER)
+@DynamicUpdate
 public class User extends BaseEntity {
 
     @Column(name = "email", nullable = false)
@@ -51,9 +57,14 @@ public class User extends BaseEntity {
     @Column(name = "password_reset_expires")
     private LocalDateTime passwordResetExpires;
 
+    // Written behind by TouchUpdateBuffer; not covered by the version or ETags
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
 
+    // Moves on every password, status or role change; tokens issued under an older epoch are rejected
+    @Column(name = "security_epoch", nullable = false)
+    private Long securityEpoch = 0L;
+
     @Column(name = "two_factor_enabled")
     private Boolean twoFactorEnabled = false;
 
@@ -64,13 +75,13 @@ public class User extends BaseEntity {
     @JoinColumn(name = "company_id", nullable = false)
     private Company company;
 
-    @ManyToMany(fetch = FetchType.EAGER)
-    @JoinTable(
-        name = "user_roles",
-        joinColumns = @JoinColumn(name = "user_id"),
-        inverseJoinColumns = @JoinColumn(name = "role_id")
-    )
-    private Set<Role> roles = new HashSet<>();
+    // Role ids only; names and permissions resolve against the shared RoleCatalog. Loaded for
+    // a whole result list with one subselect instead of joining roles into every row.
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
+    @Column(name = "role_id")
+    @Fetch(FetchMode.SUBSELECT)
+    private Set<Long> roleIds = new HashSet<>();
 
     @Column(name = "preferences", columnDefinition = "TEXT")
     private String preferences; // JSON string of user preferences
@@ -1,9 +1,12 @@
 package com.saasplatform.repository;
 
 import com.saasplatform.entity.Company;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CompanyRepository extends JpaRepository<Company, Long> {
@@ -12,5 +15,11 @@ public interface CompanyRepository extends JpaRepository<Company, Long> {
     List<Company> findByStatus(Company.CompanyStatus status);
     
     long countByStatus(Company.CompanyStatus status);
+    
+    /**
+     * Lock the company row until the transaction ends, serializing checks of its plan limits
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Company> findForUpdateById(Long id);
 }
 
@@ -1,36 +1,56 @@
 package com.saasplatform.repository;
 
+import com.saasplatform.dto.EntityVersion;
 import com.saasplatform.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Queries without a tenant argument are scoped by the tenant filter and must run with a
+ * tenant bound. Lookups by id, and queries used by caches and jobs that run without a tenant
+ * bound, name the tenant explicitly.
+ */
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerRepositoryCustom {
 
-    List<Customer> findByTenantId(String tenantId);
+    Optional<Customer> findByTenantIdAndId(String tenantId, Long id);
     
-    Optional<Customer> findByTenantIdAndCustomerNumber(String tenantId, String customerNumber);
+    Optional<Customer> findByCustomerNumber(String customerNumber);
     
-    Optional<Customer> findByTenantIdAndEmail(String tenantId, String email);
+    List<Customer> findByStatus(Customer.CustomerStatus status);
     
-    List<Customer> findByTenantIdAndStatus(String tenantId, Customer.CustomerStatus status);
+    List<Customer> findByCustomerType(Customer.CustomerType customerType);
     
-    List<Customer> findByTenantIdAndCustomerType(String tenantId, Customer.CustomerType customerType);
-    
-    @Query("SELECT c FROM Customer c WHERE c.tenantId = :tenantId AND " +
+    @Query("SELECT c FROM Customer c WHERE " +
            "(LOWER(c.companyName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(c.contactPerson) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(c.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<Customer> findByTenantIdAndSearchTerm(@Param("tenantId") String tenantId, @Param("searchTerm") String searchTerm);
+    List<Customer> findBySearchTerm(@Param("searchTerm") String searchTerm);
+    
+    @Query("SELECT c.id, c.companyName, c.contactPerson, c.email FROM Customer c WHERE c.tenantId = :tenantId")
+    List<Object[]> findSearchFieldsByTenantId(@Param("tenantId") String tenantId);
+    
+    @Query("SELECT c.email, c.customerNumber FROM Customer c WHERE c.tenantId = :tenantId")
+    List<Object[]> findEmailsAndNumbersByTenantId(@Param("tenantId") String tenantId);
+    
+    /**
+     * Lowercased emails of the given lowercased emails that the tenant's customers already use
+     */
+    @Query("SELECT LOWER(c.email) FROM Customer c WHERE c.tenantId = :tenantId AND LOWER(c.email) IN :emails")
+    List<String> findExistingEmailsIgnoreCase(@Param("tenantId") String tenantId, @Param("emails") Collection<String> emails);
     
     boolean existsByTenantIdAndCustomerNumber(String tenantId, String customerNumber);
     
     boolean existsByTenantIdAndEmail(String tenantId, String email);
     
     long countByTenantId(String tenantId);
+    
+    @Query("SELECT new com.saasplatform.dto.EntityVersion(c.id, c.version) FROM Customer c WHERE c.tenantId = :tenantId AND c.id = :id")
+    Optional<EntityVersion> findVersionByTenantIdAndId(@Param("tenantId") String tenantId, @Param("id") Long id);
 }
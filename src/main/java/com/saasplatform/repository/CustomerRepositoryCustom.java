@@ -0,0 +1,102 @@
+package com.saasplatform.repository;
+
+import com.saasplatform.dto.CustomerFilter;
+import com.saasplatform.entity.Customer;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Columns customers can be keyset-paginated by; id always breaks ties
+     */
+    enum SortField {
+        ID("id"),
+        COMPANY_NAME("companyName"),
+        CREATED_AT("createdAt");
+
+        private final String property;
+
+        SortField(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public static SortField from(String name) {
+            if (name == null || name.isBlank()) {
+                return ID;
+            }
+            for (SortField field : values()) {
+                if (field.property.equalsIgnoreCase(name) || field.name().equalsIgnoreCase(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort field: " + name);
+        }
+
+        public String format(Customer customer) {
+            return switch (this) {
+                case ID -> String.valueOf(customer.getId());
+                case COMPANY_NAME -> customer.getCompanyName();
+                case CREATED_AT -> customer.getCreatedAt() != null ? customer.getCreatedAt().toString() : null;
+            };
+        }
+
+        public Object parse(String value) {
+            try {
+                return switch (this) {
+                    case ID -> Long.valueOf(value);
+                    case COMPANY_NAME -> value;
+                    case CREATED_AT -> LocalDateTime.parse(value);
+                };
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor value for " + name(), e);
+            }
+        }
+
+        public String key(boolean ascending) {
+            return name() + (ascending ? ":asc" : ":desc");
+        }
+    }
+
+    /**
+     * Seek past the given row in the given scan direction, without an OFFSET, so every page
+     * costs the same regardless of depth
+     *
+     * @param filter criteria every row must match, or null for all customers
+     * @param searchIds ids already matched by the text search, or null to match filter.search in the query
+     * @param lastValue sort value of the boundary row, or null for the first page
+     * @param lastId id of the boundary row, or null for the first page
+     */
+    List<Customer> findPageAfter(String tenantId, CustomerFilter filter, Collection<Long> searchIds,
+                                 SortField sortField, boolean ascending,
+                                 Object lastValue, Long lastId, int limit);
+
+    /**
+     * All customers matching the filter, in id order
+     */
+    List<Customer> findMatching(String tenantId, CustomerFilter filter, Collection<Long> searchIds);
+
+    long countMatching(String tenantId, CustomerFilter filter, Collection<Long> searchIds);
+
+    /**
+     * Forward-only, read-only stream of the tenant's customers in id order, fetched from the
+     * database fetchSize rows at a time. Must be consumed and closed inside a transaction.
+     */
+    Stream<Customer> streamByTenantId(String tenantId, int fetchSize);
+
+    /**
+     * Set the given properties on the tenant's customers with the given ids in one UPDATE,
+     * bumping their version
+     *
+     * @return number of rows updated
+     */
+    int updateFields(String tenantId, Collection<Long> ids, Map<String, Object> values);
+}
@@ -0,0 +1,174 @@
+package com.saasplatform.repository;
+
+import com.saasplatform.dto.CustomerFilter;
+import com.saasplatform.entity.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class CustomerRepositoryCustomImpl implements CustomerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Customer> findPageAfter(String tenantId, CustomerFilter filter, Collection<Long> searchIds,
+                                        SortField sortField, boolean ascending,
+                                        Object lastValue, Long lastId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Customer> query = cb.createQuery(Customer.class);
+        Root<Customer> customer = query.from(Customer.class);
+
+        List<Predicate> predicates = predicates(cb, customer, tenantId, filter, searchIds);
+        Path<Long> id = customer.get("id");
+        if (lastId != null) {
+            if (sortField == SortField.ID) {
+                predicates.add(ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId));
+            } else {
+                predicates.add(seek(cb, customer.get(sortField.getProperty()), id, ascending, lastValue, lastId));
+            }
+        }
+
+        query.select(customer).where(predicates.toArray(new Predicate[0]));
+        if (sortField == SortField.ID) {
+            query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            Path<?> sortPath = customer.get(sortField.getProperty());
+            query.orderBy(ascending ? cb.asc(sortPath) : cb.desc(sortPath), ascending ? cb.asc(id) : cb.desc(id));
+        }
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Customer> findMatching(String tenantId, CustomerFilter filter, Collection<Long> searchIds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Customer> query = cb.createQuery(Customer.class);
+        Root<Customer> customer = query.from(Customer.class);
+        query.select(customer)
+                .where(predicates(cb, customer, tenantId, filter, searchIds).toArray(new Predicate[0]))
+                .orderBy(cb.asc(customer.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public long countMatching(String tenantId, CustomerFilter filter, Collection<Long> searchIds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Customer> customer = query.from(Customer.class);
+        query.select(cb.count(customer))
+                .where(predicates(cb, customer, tenantId, filter, searchIds).toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public int updateFields(String tenantId, Collection<Long> ids, Map<String, Object> values) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Customer> update = cb.createCriteriaUpdate(Customer.class);
+        Root<Customer> customer = update.from(Customer.class);
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            update.set(customer.<Object>get(value.getKey()), value.getValue());
+        }
+        Path<Long> version = customer.get("version");
+        update.set(version, cb.sum(cb.coalesce(version, 0L), 1L));
+        update.set(customer.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        update.set(customer.<String>get("updatedBy"), "system");
+        update.where(cb.equal(customer.get("tenantId"), tenantId), customer.get("id").in(ids));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public Stream<Customer> streamByTenantId(String tenantId, int fetchSize) {
+        return entityManager.createQuery("SELECT c FROM Customer c WHERE c.tenantId = :tenantId ORDER BY c.id", Customer.class)
+                .setParameter("tenantId", tenantId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Tenant first, then equality criteria, so the (tenant_id, status) and
+     * (tenant_id, customer_type) indexes can drive the scan
+     */
+    private static List<Predicate> predicates(CriteriaBuilder cb, Root<Customer> customer, String tenantId,
+                                              CustomerFilter filter, Collection<Long> searchIds) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(customer.get("tenantId"), tenantId));
+        if (filter == null) {
+            return predicates;
+        }
+
+        Customer.CustomerStatus status = filter.statusValue();
+        if (status != null) {
+            predicates.add(cb.equal(customer.get("status"), status));
+        }
+        Customer.CustomerType type = filter.typeValue();
+        if (type != null) {
+            predicates.add(cb.equal(customer.get("customerType"), type));
+        }
+        if (filter.getIndustry() != null && !filter.getIndustry().isBlank()) {
+            predicates.add(cb.equal(cb.lower(customer.<String>get("industry")), filter.getIndustry().trim().toLowerCase(Locale.ROOT)));
+        }
+        if (filter.getMinRevenue() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(customer.<BigDecimal>get("annualRevenue"), filter.getMinRevenue()));
+        }
+        if (filter.getMaxRevenue() != null) {
+            predicates.add(cb.lessThanOrEqualTo(customer.<BigDecimal>get("annualRevenue"), filter.getMaxRevenue()));
+        }
+        if (filter.getMinEmployees() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(customer.<Integer>get("employeeCount"), filter.getMinEmployees()));
+        }
+        if (filter.getMaxEmployees() != null) {
+            predicates.add(cb.lessThanOrEqualTo(customer.<Integer>get("employeeCount"), filter.getMaxEmployees()));
+        }
+        if (filter.getFollowUpFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(customer.<LocalDate>get("nextFollowUpDate"), filter.getFollowUpFrom()));
+        }
+        if (filter.getFollowUpTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(customer.<LocalDate>get("nextFollowUpDate"), filter.getFollowUpTo()));
+        }
+
+        if (searchIds != null) {
+            predicates.add(searchIds.isEmpty() ? cb.disjunction() : customer.get("id").in(searchIds));
+        } else if (filter.hasSearch()) {
+            String pattern = "%" + filter.getSearch().trim().toLowerCase(Locale.ROOT) + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(customer.<String>get("companyName")), pattern),
+                    cb.like(cb.lower(customer.<String>get("contactPerson")), pattern),
+                    cb.like(cb.lower(customer.<String>get("email")), pattern)));
+        }
+        return predicates;
+    }
+
+    /**
+     * Rows after (lastValue, lastId) in sort order. The redundant leading range lets the
+     * (tenant_id, column, id) index seek straight to the boundary; the OR resolves ties on id.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate seek(CriteriaBuilder cb, Expression sortPath, Path<Long> id, boolean ascending,
+                                  Object lastValue, Long lastId) {
+        Comparable value = (Comparable) lastValue;
+        if (ascending) {
+            return cb.and(cb.greaterThanOrEqualTo(sortPath, value),
+                    cb.or(cb.greaterThan(sortPath, value), cb.greaterThan(id, lastId)));
+        }
+        return cb.and(cb.lessThanOrEqualTo(sortPath, value),
+                cb.or(cb.lessThan(sortPath, value), cb.lessThan(id, lastId)));
+    }
+}
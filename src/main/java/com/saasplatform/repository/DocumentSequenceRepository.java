@@ -0,0 +1,16 @@
+package com.saasplatform.repository;
+
+import com.saasplatform.entity.DocumentSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DocumentSequenceRepository extends JpaRepository<DocumentSequence, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<DocumentSequence> findForUpdateByTenantIdAndDocumentType(String tenantId, DocumentSequence.DocumentType documentType);
+}
@@ -2,6 +2,8 @@ package com.saasplatform.repository;
 
 import com.saasplatform.entity.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,6 +20,11 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     
     List<Notification> findByTenantIdAndRecipientIdAndStatus(String tenantId, Long recipientId, Notification.NotificationStatus status);
     
+    @Query("SELECT n.id FROM Notification n WHERE n.tenantId = :tenantId AND n.recipient.id = :recipientId AND n.status = :status")
+    List<Long> findIdsByTenantIdAndRecipientIdAndStatus(@Param("tenantId") String tenantId,
+                                                        @Param("recipientId") Long recipientId,
+                                                        @Param("status") Notification.NotificationStatus status);
+    
     long countByTenantIdAndRecipientIdAndStatus(String tenantId, Long recipientId, Notification.NotificationStatus status);
     
     List<Notification> findByTenantIdAndRecipientIdOrderByCreatedAtDesc(String tenantId, Long recipientId);
@@ -0,0 +1,20 @@
+package com.saasplatform.repository;
+
+import com.saasplatform.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    long deleteByExpiresAtBefore(LocalDateTime now);
+}
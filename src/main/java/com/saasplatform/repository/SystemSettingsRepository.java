@@ -1,7 +1,10 @@
 package com.saasplatform.repository;
 
+import com.saasplatform.dto.EntityVersion;
 import com.saasplatform.entity.SystemSettings;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,4 +22,8 @@ public interface SystemSettingsRepository extends JpaRepository<SystemSettings,
     boolean existsByTenantIdAndSettingKey(String tenantId, String settingKey);
     
     long countByTenantId(String tenantId);
+    
+    @Query("SELECT new com.saasplatform.dto.EntityVersion(s.id, s.version) FROM SystemSettings s " +
+           "WHERE s.tenantId = :tenantId AND s.settingKey = :settingKey")
+    Optional<EntityVersion> findVersionByTenantIdAndSettingKey(@Param("tenantId") String tenantId, @Param("settingKey") String settingKey);
 }
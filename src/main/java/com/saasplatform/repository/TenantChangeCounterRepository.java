@@ -0,0 +1,21 @@
+package com.saasplatform.repository;
+
+import com.saasplatform.entity.TenantChangeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TenantChangeCounterRepository extends JpaRepository<TenantChangeCounter, Long> {
+
+    @Query("SELECT c.counter FROM TenantChangeCounter c WHERE c.tenantId = :tenantId AND c.tableName = :tableName")
+    Optional<Long> findCounter(@Param("tenantId") String tenantId, @Param("tableName") String tableName);
+
+    @Modifying
+    @Query("UPDATE TenantChangeCounter c SET c.counter = c.counter + 1 WHERE c.tenantId = :tenantId AND c.tableName = :tableName")
+    int increment(@Param("tenantId") String tenantId, @Param("tableName") String tableName);
+}
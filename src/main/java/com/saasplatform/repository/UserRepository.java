@@ -1,30 +1,90 @@
 package com.saasplatform.repository;
 
+import com.saasplatform.dto.EntityVersion;
 import com.saasplatform.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Queries without a tenant argument are scoped by the tenant filter whenever a tenant is
+ * bound. Lookups by id, and queries used by super-admin paths and caches, name the tenant
+ * explicitly.
+ */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     
     List<User> findByTenantId(String tenantId);
     
+    long countByTenantId(String tenantId);
+    
+    /**
+     * Lower-cased emails already registered in any tenant; native, so the tenant filter does
+     * not hide other tenants' users. Pass the emails lower-cased.
+     */
+    @Query(value = "SELECT LOWER(email) FROM users WHERE LOWER(email) IN (:emails)", nativeQuery = true)
+    List<String> findExistingEmailsIgnoreCase(@Param("emails") Collection<String> emails);
+    
+    /**
+     * (id, email) of the tenant's users with the given emails
+     */
+    @Query("SELECT u.id, u.email FROM User u WHERE u.tenantId = :tenantId AND u.email IN :emails")
+    List<Object[]> findIdsByTenantIdAndEmails(@Param("tenantId") String tenantId, @Param("emails") Collection<String> emails);
+    
     Optional<User> findByTenantIdAndId(String tenantId, Long id);
     
-    @Query("SELECT u FROM User u JOIN u.roles r WHERE u.tenantId = :tenantId AND r.name = :roleName")
-    List<User> findByTenantIdAndRolesName(@Param("tenantId") String tenantId, @Param("roleName") String roleName);
+    @Query("SELECT u FROM User u WHERE :roleId MEMBER OF u.roleIds")
+    List<User> findByRoleId(@Param("roleId") Long roleId);
     
-    @Query("SELECT u FROM User u WHERE u.tenantId = :tenantId AND " +
+    @Query("SELECT u FROM User u WHERE " +
            "(LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<User> findByTenantIdAndSearchTerm(@Param("tenantId") String tenantId, @Param("searchTerm") String searchTerm);
+    List<User> findBySearchTerm(@Param("searchTerm") String searchTerm);
+    
+    @Query("SELECT new com.saasplatform.dto.EntityVersion(u.id, u.version) FROM User u WHERE u.tenantId = :tenantId AND u.id = :id")
+    Optional<EntityVersion> findVersionByTenantIdAndId(@Param("tenantId") String tenantId, @Param("id") Long id);
+    
+    /**
+     * (security epoch, status) of the user, without loading the entity
+     */
+    @Query("SELECT u.securityEpoch, u.status FROM User u WHERE u.email = :email")
+    List<Object[]> findSecurityStateByEmail(@Param("email") String email);
+    
+    /**
+     * (id, first name, last name, email) of the tenant's users with the given status, for
+     * building the typeahead index without loading entities
+     */
+    @Query("SELECT u.id, u.firstName, u.lastName, u.email FROM User u WHERE u.tenantId = :tenantId AND u.status = :status")
+    List<Object[]> findTypeaheadFieldsByTenantIdAndStatus(@Param("tenantId") String tenantId,
+                                                          @Param("status") User.UserStatus status);
+    
+    /**
+     * (id, first name, last name, email) of users whose name or email starts with the lowercase
+     * prefix, for typeahead while the index is unavailable
+     */
+    @Query("SELECT u.id, u.firstName, u.lastName, u.email FROM User u WHERE u.tenantId = :tenantId AND u.status = :status AND " +
+           "(LOWER(u.firstName) LIKE CONCAT(:prefix, '%') OR " +
+           "LOWER(u.lastName) LIKE CONCAT(:prefix, '%') OR " +
+           "LOWER(CONCAT(u.firstName, ' ', u.lastName)) LIKE CONCAT(:prefix, '%') OR " +
+           "LOWER(u.email) LIKE CONCAT(:prefix, '%')) " +
+           "ORDER BY u.firstName, u.lastName")
+    List<Object[]> findTypeaheadFieldsByTenantIdAndPrefix(@Param("tenantId") String tenantId,
+                                                          @Param("status") User.UserStatus status,
+                                                          @Param("prefix") String prefix,
+                                                          Pageable pageable);
+    
+    /**
+     * (user id, role id) pairs for the given users, without loading the entities
+     */
+    @Query("SELECT u.id, r FROM User u JOIN u.roleIds r WHERE u.id IN :ids")
+    List<Object[]> findRoleIdsByUserIds(@Param("ids") Collection<Long> ids);
 }
-
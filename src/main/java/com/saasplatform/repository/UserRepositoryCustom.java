@@ -0,0 +1,22 @@
+package com.saasplatform.repository;
+
+import com.saasplatform.dto.UserDirectoryEntry;
+import com.saasplatform.dto.UserDirectoryFilter;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Directory rows across all tenants matching the filter, in (tenant_id, id) order, starting
+     * after the given boundary row when one is given. Roles are left empty.
+     *
+     * @param roleId only users holding this role, or null for any; the filter's role name is
+     *        resolved by the caller
+     * @param ascending scan direction; false walks backwards from the boundary
+     */
+    List<UserDirectoryEntry> findDirectoryPage(UserDirectoryFilter filter, Long roleId, boolean ascending,
+                                               String lastTenantId, Long lastId, int limit);
+
+    long countDirectory(UserDirectoryFilter filter, Long roleId);
+}
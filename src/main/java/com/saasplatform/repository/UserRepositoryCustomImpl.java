@@ -0,0 +1,109 @@
+package com.saasplatform.repository;
+
+import com.saasplatform.dto.UserDirectoryEntry;
+import com.saasplatform.dto.UserDirectoryFilter;
+import com.saasplatform.entity.Company;
+import com.saasplatform.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserDirectoryEntry> findDirectoryPage(UserDirectoryFilter filter, Long roleId, boolean ascending,
+                                                      String lastTenantId, Long lastId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        Join<User, Company> company = user.join("company", JoinType.LEFT);
+
+        List<Predicate> predicates = predicates(cb, user, filter, roleId);
+        Path<String> tenantId = user.get("tenantId");
+        Path<Long> id = user.get("id");
+        if (lastId != null) {
+            // Row-value comparison (tenant_id, id) > (?, ?) spelled so the index can seek
+            predicates.add(ascending
+                    ? cb.and(cb.greaterThanOrEqualTo(tenantId, lastTenantId),
+                             cb.or(cb.greaterThan(tenantId, lastTenantId), cb.greaterThan(id, lastId)))
+                    : cb.and(cb.lessThanOrEqualTo(tenantId, lastTenantId),
+                             cb.or(cb.lessThan(tenantId, lastTenantId), cb.lessThan(id, lastId))));
+        }
+
+        query.multiselect(id, tenantId, company.get("id"), company.get("name"), user.get("email"),
+                        user.get("firstName"), user.get("lastName"), user.get("status"), user.get("lastLogin"))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(ascending ? cb.asc(tenantId) : cb.desc(tenantId), ascending ? cb.asc(id) : cb.desc(id));
+
+        List<UserDirectoryEntry> entries = new ArrayList<>();
+        for (Tuple row : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+            entries.add(new UserDirectoryEntry(
+                    row.get(0, Long.class),
+                    row.get(1, String.class),
+                    row.get(2, Long.class),
+                    row.get(3, String.class),
+                    row.get(4, String.class),
+                    row.get(5, String.class),
+                    row.get(6, String.class),
+                    row.get(7, User.UserStatus.class),
+                    row.get(8, LocalDateTime.class),
+                    List.of()));
+        }
+        return entries;
+    }
+
+    @Override
+    public long countDirectory(UserDirectoryFilter filter, Long roleId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> user = query.from(User.class);
+        query.select(cb.count(user)).where(predicates(cb, user, filter, roleId).toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Predicate> predicates(CriteriaBuilder cb, Root<User> user, UserDirectoryFilter filter,
+                                              Long roleId) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (roleId != null) {
+            // Membership test on user_roles, so a user with several roles is still one row
+            predicates.add(cb.isMember(roleId, user.<Set<Long>>get("roleIds")));
+        }
+        if (filter == null) {
+            return predicates;
+        }
+
+        if (filter.getCompanyId() != null) {
+            predicates.add(cb.equal(user.get("company").get("id"), filter.getCompanyId()));
+        }
+        if (filter.getTenantId() != null && !filter.getTenantId().isBlank()) {
+            predicates.add(cb.equal(user.get("tenantId"), filter.getTenantId().trim()));
+        }
+        User.UserStatus status = filter.statusValue();
+        if (status != null) {
+            predicates.add(cb.equal(user.get("status"), status));
+        }
+        Path<LocalDateTime> lastLogin = user.get("lastLogin");
+        if (filter.getLastLoginFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(lastLogin, filter.getLastLoginFrom().atStartOfDay()));
+        }
+        if (filter.getLastLoginTo() != null) {
+            predicates.add(cb.lessThan(lastLogin, filter.getLastLoginTo().plusDays(1).atStartOfDay()));
+        }
+        return predicates;
+    }
+}
@@ -1,22 +1,27 @@
 package com.saasplatform.security;
 
 import com.saasplatform.entity.User;
+import com.saasplatform.service.PermissionService;
 import com.saasplatform.service.UserService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.stream.Collectors;
-
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserService userService;
+    private final PermissionService permissionService;
+    private final UserDetailsCache userDetailsCache;
 
+    /**
+     * Load the user from the database, never from the cache, so password checks at login see
+     * the current hash and status; the cache is refreshed with the result
+     */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userService.findByEmail(email);
@@ -25,22 +30,34 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("User not found with email: " + email);
         }
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(user.getRoles().stream()
-                        .map(role -> new SimpleGrantedAuthority(role.getName()))
-                        .collect(Collectors.toList()))
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(!user.getStatus().equals(User.UserStatus.ACTIVE))
-                .build();
+        SecurityUser securityUser = SecurityUser.from(user, permissionService.getRoleNames(user),
+                permissionService.getUserPermissions(user));
+        userDetailsCache.put(email, securityUser);
+        return securityUser;
     }
-}
-
-
-
-
 
+    /**
+     * Principal for a request carrying an already verified token, served from the cache when
+     * possible; never use this to check a password
+     */
+    public UserDetails loadCachedUserByUsername(String email) throws UsernameNotFoundException {
+        SecurityUser cached = userDetailsCache.get(email);
+        if (cached != null) {
+            return cached;
+        }
+        return loadUserByUsername(email);
+    }
 
+    /**
+     * Called by the authentication provider after a successful login when the stored hash
+     * was produced with a weaker BCrypt cost than the configured one
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userService.updatePasswordHash(user.getUsername(), newPassword);
+        if (user instanceof SecurityUser securityUser) {
+            return securityUser.toBuilder().password(newPassword).build();
+        }
+        return loadUserByUsername(user.getUsername());
+    }
+}
@@ -2,21 +2,43 @@ package com.saasplatform.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import com.saasplatform.util.StripedLruCache;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtTokenProvider {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_TENANT_ID = "tid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_PERMISSIONS = "perms";
+    public static final String CLAIM_SECURITY_EPOCH = "sep";
+
+    private final SecurityEpochRegistry securityEpochRegistry;
+    private final TokenRevocationList tokenRevocationList;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -26,15 +48,50 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private long jwtRefreshExpirationInMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
+
+    @Value("${jwt.claims-cache.stripes:64}")
+    private int claimsCacheStripes;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Verified claims keyed by SHA-256 of the token, dropped once the token expires or, when
+    // full, least recently used first within the key's stripe
+    private StripedLruCache<String, VerifiedClaims> verifiedClaims;
+
+    @PostConstruct
+    void init() {
+        verifiedClaims = new StripedLruCache<>(claimsCacheMaxSize, claimsCacheStripes);
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        if (userPrincipal instanceof SecurityUser securityUser) {
+            return generateToken(securityUser);
+        }
         return generateToken(userPrincipal.getUsername());
     }
 
+    /**
+     * Generate an access token carrying tenant, roles and permissions so requests can be
+     * authenticated from the token alone
+     */
+    public String generateToken(SecurityUser user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_TENANT_ID, user.getTenantId());
+        claims.put(CLAIM_ROLES, user.getRoles());
+        claims.put(CLAIM_PERMISSIONS, user.getPermissions());
+        claims.put(CLAIM_SECURITY_EPOCH, securityEpochRegistry.currentEpoch(user.getEmail()));
+        return generateToken(user.getEmail(), claims);
+    }
+
     public String generateToken(String username) {
         return generateToken(username, new HashMap<>());
     }
@@ -45,10 +102,11 @@ public class JwtTokenProvider {
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
@@ -57,41 +115,112 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + jwtRefreshExpirationInMs);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
+                .claim(CLAIM_SECURITY_EPOCH, securityEpochRegistry.currentEpoch(username))
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verify the token once and return its claims, or null if it is invalid, expired or revoked.
+     * Tokens seen before are answered from the verified-claims cache until they expire.
+     */
+    public Claims getVerifiedClaims(String token) {
+        if (!StringUtils.hasText(token)) {
+            log.error("JWT claims string is empty");
+            return null;
+        }
+
+        String cacheKey = cacheKey(token);
+        long now = System.currentTimeMillis();
 
-        return claims.getSubject();
+        VerifiedClaims cached = verifiedClaims.get(cacheKey);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return isRevoked(cached.claims()) ? null : cached.claims();
+            }
+            verifiedClaims.remove(cacheKey, cached);
+            log.error("Expired JWT token");
+            return null;
+        }
+
+        Claims claims = parseAndVerify(token);
+        if (claims != null && claims.getExpiration() != null) {
+            verifiedClaims.put(cacheKey, new VerifiedClaims(claims, claims.getExpiration().getTime()));
+        }
+        return claims != null && isRevoked(claims) ? null : claims;
     }
 
-    public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Revoke a token before its expiry; returns false if the token is not valid
+     */
+    public boolean revokeToken(String token) {
+        Claims claims = getVerifiedClaims(token);
+        if (claims == null) {
+            return false;
+        }
+        tokenRevocationList.revoke(claims);
+        return true;
+    }
+
+    /**
+     * Rebuild the principal from signed claims, or null for tokens issued without them; whether
+     * it is enabled comes from the user's persisted status, not the token
+     */
+    public SecurityUser getUserFromClaims(Claims claims) {
+        if (!claims.containsKey(CLAIM_ROLES) || !claims.containsKey(CLAIM_TENANT_ID)) {
+            return null;
+        }
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        return SecurityUser.builder()
+                .id(userId != null ? userId.longValue() : null)
+                .tenantId(claims.get(CLAIM_TENANT_ID, String.class))
+                .email(claims.getSubject())
+                .password("")
+                .roles(toStringSet(claims.get(CLAIM_ROLES)))
+                .permissions(toStringSet(claims.get(CLAIM_PERMISSIONS)))
+                .enabled(securityEpochRegistry.isEnabled(claims.getSubject()))
+                .build();
+    }
+
+    public long getSecurityEpoch(Claims claims) {
+        Number epoch = claims.get(CLAIM_SECURITY_EPOCH, Number.class);
+        return epoch != null ? epoch.longValue() : 0L;
+    }
+
+    /**
+     * Check whether the user's security epoch has moved past the one the token was issued with
+     */
+    public boolean isSecurityEpochStale(Claims claims) {
+        return securityEpochRegistry.isStale(claims.getSubject(), getSecurityEpoch(claims));
+    }
 
-        return claims.getExpiration();
+    public String getUsernameFromToken(String token) {
+        Claims claims = getVerifiedClaims(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    public Date getExpirationDateFromToken(String token) {
+        Claims claims = getVerifiedClaims(token);
+        return claims != null ? claims.getExpiration() : null;
     }
 
     public boolean validateToken(String token) {
+        return getVerifiedClaims(token) != null;
+    }
+
+    public boolean isTokenExpired(String token) {
+        Date expiration = getExpirationDateFromToken(token);
+        return expiration == null || expiration.before(new Date());
+    }
+
+    private Claims parseAndVerify(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (SecurityException ex) {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
             log.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
@@ -101,13 +230,37 @@ public class JwtTokenProvider {
             log.error("Unsupported JWT token");
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
+        } catch (JwtException ex) {
+            log.error("Invalid JWT token: {}", ex.getMessage());
+        }
+        return null;
+    }
+
+    private boolean isRevoked(Claims claims) {
+        if (tokenRevocationList.isRevoked(claims)) {
+            log.error("Revoked JWT token");
+            return true;
         }
         return false;
     }
 
-    public boolean isTokenExpired(String token) {
-        Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    private Set<String> toStringSet(Object value) {
+        Set<String> result = new HashSet<>();
+        if (value instanceof Collection<?> values) {
+            values.forEach(v -> result.add(String.valueOf(v)));
+        }
+        return result;
     }
-}
 
+    private String cacheKey(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedClaims(Claims claims, long expiresAt) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.saasplatform.security;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Bean for method security expressions, e.g. {@code @PreAuthorize("@perm.isSuperAdmin()")},
+ * evaluated against the caller's permission snapshot
+ */
+@Component("perm")
+public class PermissionExpressions {
+
+    public boolean has(String permission) {
+        return PermissionSnapshot.current().has(permission);
+    }
+
+    public boolean hasAny(String... permissions) {
+        return PermissionSnapshot.current().hasAny(permissions);
+    }
+
+    public boolean hasAll(String... permissions) {
+        return PermissionSnapshot.current().hasAll(permissions);
+    }
+
+    public boolean isSuperAdmin() {
+        return PermissionSnapshot.current().isSuperAdmin();
+    }
+
+    public boolean isCompanyAdmin() {
+        return PermissionSnapshot.current().isCompanyAdmin();
+    }
+}
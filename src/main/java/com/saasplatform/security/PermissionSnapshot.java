@@ -0,0 +1,122 @@
+package com.saasplatform.security;
+
+import lombok.Getter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable effective permissions of the caller, computed once when the principal is built
+ * and read by controllers, services and {@code @perm} security expressions for the rest of
+ * the request without walking roles again.
+ */
+@Getter
+public final class PermissionSnapshot {
+
+    public static final PermissionSnapshot EMPTY = new PermissionSnapshot(null, null, null, 0L, Set.of());
+
+    private final Long userId;
+    private final String tenantId;
+    private final String email;
+    private final long mask;
+    // Granted names that have no bit assigned in Permissions
+    private final Set<String> otherPermissions;
+
+    private PermissionSnapshot(Long userId, String tenantId, String email, long mask, Set<String> otherPermissions) {
+        this.userId = userId;
+        this.tenantId = tenantId;
+        this.email = email;
+        this.mask = mask;
+        this.otherPermissions = otherPermissions;
+    }
+
+    public static PermissionSnapshot of(Long userId, String tenantId, String email, Set<String> permissions) {
+        long mask = 0L;
+        Set<String> other = new HashSet<>();
+        for (String permission : permissions) {
+            long bit = Permissions.bit(permission);
+            if (bit != 0L) {
+                mask |= bit;
+            } else {
+                other.add(permission);
+            }
+        }
+        return new PermissionSnapshot(userId, tenantId, email, mask, Set.copyOf(other));
+    }
+
+    /**
+     * Snapshot of the currently authenticated user, or {@link #EMPTY} if there is none
+     */
+    public static PermissionSnapshot current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof SecurityUser user) {
+            return user.getPermissionSnapshot();
+        }
+        return EMPTY;
+    }
+
+    public boolean isAuthenticated() {
+        return email != null;
+    }
+
+    public boolean has(String permission) {
+        long bit = Permissions.bit(permission);
+        return bit != 0L ? (mask & bit) != 0L : otherPermissions.contains(permission);
+    }
+
+    public boolean hasAny(String... permissions) {
+        for (String permission : permissions) {
+            if (has(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasAll(String... permissions) {
+        for (String permission : permissions) {
+            if (!has(permission)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isSuperAdmin() {
+        return has(Permissions.VIEW_ALL_COMPANIES);
+    }
+
+    public boolean isCompanyAdmin() {
+        return has(Permissions.VIEW_COMPANY_DASHBOARD);
+    }
+
+    public boolean canManageCompanyUsers() {
+        return has(Permissions.MANAGE_COMPANY_USERS);
+    }
+
+    public boolean canApproveQuotes() {
+        return has(Permissions.APPROVE_QUOTES);
+    }
+
+    public boolean canApproveBookings() {
+        return has(Permissions.APPROVE_BOOKINGS);
+    }
+
+    public boolean canCreateQuotes() {
+        return has(Permissions.CREATE_QUOTES);
+    }
+
+    public boolean canCreateBookings() {
+        return has(Permissions.CREATE_BOOKINGS);
+    }
+
+    public boolean canViewCompanyRevenue() {
+        return has(Permissions.VIEW_COMPANY_REVENUE);
+    }
+
+    public boolean canViewAllCompanies() {
+        return has(Permissions.VIEW_ALL_COMPANIES);
+    }
+}
@@ -1,7 +1,11 @@
 package com.saasplatform.security;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class Permissions {
     
@@ -54,11 +58,69 @@ public class Permissions {
         CREATE_CUSTOMERS, EDIT_CUSTOMERS, VIEW_CUSTOMERS
     );
     
+    // Fixed bit index per permission; append only, never reorder
+    private static final List<String> BIT_ORDER = List.of(
+        VIEW_ALL_COMPANIES, MANAGE_ALL_COMPANIES, VIEW_ALL_USERS, MANAGE_ALL_USERS,
+        VIEW_ALL_REVENUE, SYSTEM_SETTINGS,
+        VIEW_COMPANY_DASHBOARD, MANAGE_COMPANY_USERS, VIEW_COMPANY_REVENUE,
+        MANAGE_COMPANY_SETTINGS, APPROVE_QUOTES, APPROVE_BOOKINGS, VIEW_NOTIFICATIONS,
+        CREATE_QUOTES, EDIT_QUOTES, VIEW_QUOTES,
+        CREATE_BOOKINGS, EDIT_BOOKINGS, VIEW_BOOKINGS,
+        CREATE_LEADS, EDIT_LEADS, VIEW_LEADS,
+        CREATE_CUSTOMERS, EDIT_CUSTOMERS, VIEW_CUSTOMERS
+    );
+    
+    private static final Map<String, Integer> BIT_INDEX = new HashMap<>();
+    
+    static {
+        if (BIT_ORDER.size() > Long.SIZE) {
+            throw new IllegalStateException("Permission masks are limited to " + Long.SIZE + " permissions");
+        }
+        for (int i = 0; i < BIT_ORDER.size(); i++) {
+            BIT_INDEX.put(BIT_ORDER.get(i), i);
+        }
+    }
+    
     // Helper method to check if a permission is valid
     public static boolean isValidPermission(String permission) {
-        return SUPER_ADMIN_PERMISSIONS.contains(permission) ||
-               COMPANY_ADMIN_PERMISSIONS.contains(permission) ||
-               STAFF_PERMISSIONS.contains(permission);
+        return BIT_INDEX.containsKey(permission);
+    }
+    
+    /**
+     * Single-bit mask for a permission, or 0 if it is not a known permission
+     */
+    public static long bit(String permission) {
+        Integer index = BIT_INDEX.get(permission);
+        return index != null ? 1L << index : 0L;
+    }
+    
+    public static long mask(String... permissions) {
+        long mask = 0L;
+        for (String permission : permissions) {
+            mask |= bit(permission);
+        }
+        return mask;
+    }
+    
+    public static long mask(Iterable<String> permissions) {
+        long mask = 0L;
+        for (String permission : permissions) {
+            mask |= bit(permission);
+        }
+        return mask;
+    }
+    
+    /**
+     * Permission names for every bit set in the mask
+     */
+    public static Set<String> fromMask(long mask) {
+        Set<String> permissions = new LinkedHashSet<>();
+        for (int i = 0; i < BIT_ORDER.size(); i++) {
+            if ((mask & (1L << i)) != 0) {
+                permissions.add(BIT_ORDER.get(i));
+            }
+        }
+        return permissions;
     }
 }
 
@@ -0,0 +1,179 @@
+package com.saasplatform.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasplatform.entity.Role;
+import com.saasplatform.repository.RoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide, immutable snapshot of all roles by id and name. Users carry only role ids;
+ * names and permissions resolve here without touching the database. The snapshot is swapped
+ * whole after a role change commits, periodically to pick up other nodes' changes, and when
+ * an id or name is not found; lookups that miss reload at most once per miss interval, so
+ * unknown ids cannot turn every lookup into a full reload.
+ */
+@Component
+@Slf4j
+public class RoleCatalog {
+
+    private final RoleRepository roleRepository;
+    private final ObjectMapper objectMapper;
+    private final long missReloadIntervalMillis;
+
+    private volatile Snapshot snapshot;
+
+    public RoleCatalog(RoleRepository roleRepository,
+                       ObjectMapper objectMapper,
+                       @Value("${app.security.role-catalog.miss-reload-interval-ms:5000}") long missReloadIntervalMillis) {
+        this.roleRepository = roleRepository;
+        this.objectMapper = objectMapper;
+        this.missReloadIntervalMillis = missReloadIntervalMillis;
+    }
+
+    public RoleDefinition findById(Long id) {
+        if (id == null) {
+            return null;
+        }
+        RoleDefinition role = current().byId().get(id);
+        if (role == null) {
+            // Possibly created on another node since the last refresh
+            role = reloadOnMiss().byId().get(id);
+        }
+        return role;
+    }
+
+    public RoleDefinition findByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        RoleDefinition role = current().byName().get(name);
+        if (role == null) {
+            role = reloadOnMiss().byName().get(name);
+        }
+        return role;
+    }
+
+    public List<RoleDefinition> getAll() {
+        return List.copyOf(current().byId().values());
+    }
+
+    /**
+     * Role names for the ids, skipping ids that no longer exist
+     */
+    public Set<String> namesOf(Collection<Long> ids) {
+        Set<String> names = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                RoleDefinition role = findById(id);
+                if (role != null) {
+                    names.add(role.name());
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Reload once the surrounding transaction commits, after roles were created or changed
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.security.role-catalog.refresh-interval-ms:300000}",
+               initialDelayString = "${app.security.role-catalog.refresh-interval-ms:300000}")
+    public void refresh() {
+        try {
+            load();
+        } catch (Exception e) {
+            log.error("Failed to refresh role catalog", e);
+        }
+    }
+
+    private synchronized Snapshot reloadOnMiss() {
+        // Checked under the lock, so misses queued behind a reload reuse its result
+        Snapshot current = snapshot;
+        if (current != null && System.currentTimeMillis() - current.loadedAt() < missReloadIntervalMillis) {
+            return current;
+        }
+        try {
+            return load();
+        } catch (Exception e) {
+            log.error("Failed to reload role catalog after a miss", e);
+            return current != null ? current : new Snapshot(Map.of(), Map.of(), System.currentTimeMillis());
+        }
+    }
+
+    private synchronized Snapshot load() {
+        Map<Long, RoleDefinition> byId = new HashMap<>();
+        Map<String, RoleDefinition> byName = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            RoleDefinition definition = compile(role);
+            byId.put(definition.id(), definition);
+            byName.put(definition.name(), definition);
+        }
+        Snapshot loaded = new Snapshot(Map.copyOf(byId), Map.copyOf(byName), System.currentTimeMillis());
+        snapshot = loaded;
+        log.debug("Role catalog loaded with {} roles", byId.size());
+        return loaded;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    private RoleDefinition compile(Role role) {
+        List<String> permissions;
+        try {
+            permissions = role.getPermissions() == null || role.getPermissions().isBlank()
+                    ? List.of()
+                    : objectMapper.readValue(role.getPermissions(), new TypeReference<List<String>>() {});
+        } catch (Exception e) {
+            log.error("Error parsing permissions for role: {}", role.getName(), e);
+            permissions = List.of();
+        }
+
+        long mask = 0L;
+        Set<String> other = new HashSet<>();
+        for (String permission : permissions) {
+            long bit = Permissions.bit(permission);
+            if (bit != 0L) {
+                mask |= bit;
+            } else {
+                other.add(permission);
+            }
+        }
+        return new RoleDefinition(role.getId(), role.getName(), role.getDescription(), role.getType(),
+                mask, Set.copyOf(other));
+    }
+
+    private record Snapshot(Map<Long, RoleDefinition> byId, Map<String, RoleDefinition> byName, long loadedAt) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.saasplatform.security;
+
+import com.saasplatform.entity.Role;
+
+import java.util.Set;
+
+/**
+ * Immutable catalog entry for a role, with its permissions compiled once into a
+ * {@link Permissions} bit mask plus the granted names that have no bit assigned
+ */
+public record RoleDefinition(Long id,
+                             String name,
+                             String description,
+                             Role.RoleType type,
+                             long mask,
+                             Set<String> otherPermissions) {
+}
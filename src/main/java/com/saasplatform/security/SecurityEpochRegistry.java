@@ -0,0 +1,112 @@
+package com.saasplatform.security;
+
+import com.saasplatform.entity.User;
+import com.saasplatform.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user security epochs, persisted on the user row. Access and refresh tokens carry the
+ * epoch current at issue time and are rejected once the user's epoch moves past it, or the
+ * user no longer exists, so changed or removed users lose access on every node and across
+ * restarts. Epoch and status are cached briefly per user; this node evicts on its own
+ * changes, other nodes' changes apply within the cache TTL.
+ */
+@Component
+public class SecurityEpochRegistry {
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+
+    // Access-ordered, so the eldest entry is the least recently used; guarded by itself
+    private final Map<String, Entry> entries;
+
+    public SecurityEpochRegistry(UserRepository userRepository,
+                                 @Value("${app.security.epoch-cache.ttl-ms:10000}") long ttlMillis,
+                                 @Value("${app.security.epoch-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public long currentEpoch(String email) {
+        Entry entry = lookup(email);
+        return entry != null ? entry.epoch() : 0L;
+    }
+
+    /**
+     * True if the token's epoch is older than the user's, or the user is gone
+     */
+    public boolean isStale(String email, long tokenEpoch) {
+        Entry entry = lookup(email);
+        return entry == null || tokenEpoch < entry.epoch();
+    }
+
+    /**
+     * Whether the user's persisted status still allows access
+     */
+    public boolean isEnabled(String email) {
+        Entry entry = lookup(email);
+        return entry != null && entry.status() == User.UserStatus.ACTIVE;
+    }
+
+    /**
+     * Drop the cached state now and again once the surrounding transaction commits, so a
+     * concurrent lookup cannot re-cache the pre-commit row
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        evictNow(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(email);
+                }
+            });
+        }
+    }
+
+    private Entry lookup(String email) {
+        if (email == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry cached = entries.get(email);
+            if (cached != null && cached.expiresAt() > now) {
+                return cached.missing() ? null : cached;
+            }
+        }
+        List<Object[]> rows = userRepository.findSecurityStateByEmail(email);
+        Entry loaded = rows.isEmpty()
+                ? new Entry(0L, null, true, now + ttlMillis)
+                : new Entry((Long) rows.get(0)[0], (User.UserStatus) rows.get(0)[1], false, now + ttlMillis);
+        synchronized (entries) {
+            entries.put(email, loaded);
+        }
+        return loaded.missing() ? null : loaded;
+    }
+
+    private void evictNow(String email) {
+        synchronized (entries) {
+            entries.remove(email);
+        }
+    }
+
+    private record Entry(long epoch, User.UserStatus status, boolean missing, long expiresAt) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.saasplatform.security;
+
+import com.saasplatform.entity.User;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Authenticated principal carrying the tenant, role names and permissions of a user,
+ * either loaded from the database or rebuilt from signed token claims.
+ */
+@Getter
+public class SecurityUser implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String tenantId;
+    private final String email;
+    private String password;
+    private final String firstName;
+    private final String lastName;
+    private final String status;
+    private final Set<String> roles;
+    private final Set<String> permissions;
+    private final boolean enabled;
+    private final Collection<GrantedAuthority> authorities;
+    private final PermissionSnapshot permissionSnapshot;
+
+    @Builder(toBuilder = true)
+    public SecurityUser(Long id, String tenantId, String email, String password, String firstName, String lastName,
+                        String status, Set<String> roles, Set<String> permissions, boolean enabled) {
+        this.id = id;
+        this.tenantId = tenantId;
+        this.email = email;
+        this.password = password;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.status = status;
+        this.roles = roles != null ? Set.copyOf(roles) : Set.of();
+        this.permissions = permissions != null ? Set.copyOf(permissions) : Set.of();
+        this.enabled = enabled;
+        this.authorities = this.roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableList());
+        this.permissionSnapshot = PermissionSnapshot.of(id, tenantId, email, this.permissions);
+    }
+
+    public static SecurityUser from(User user, Set<String> roles, Set<String> permissions) {
+        return SecurityUser.builder()
+                .id(user.getId())
+                .tenantId(user.getTenantId())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .status(user.getStatus() != null ? user.getStatus().toString() : null)
+                .roles(roles)
+                .permissions(permissions)
+                .enabled(User.UserStatus.ACTIVE.equals(user.getStatus()))
+                .build();
+    }
+
+    /**
+     * Copy with credentials intact, so a cached instance is never erased after authentication
+     */
+    public SecurityUser copy() {
+        return toBuilder().build();
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+}
@@ -0,0 +1,174 @@
+package com.saasplatform.security;
+
+import com.saasplatform.entity.RevokedToken;
+import com.saasplatform.repository.RevokedTokenRepository;
+import com.saasplatform.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Revoked token ids held in memory so the authentication hot path never queries the database.
+ * A Bloom filter answers the common "not revoked" case with a few bit probes; only possible
+ * hits fall through to the exact set. Entries drop out once the token would have expired,
+ * and the whole structure is rebuilt from the revoked_tokens table at startup and periodically.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private static final String SYSTEM_TENANT = "system";
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+
+    private volatile State state;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.security.revocation.expected-tokens:100000}") long expectedTokens,
+                               @Value("${app.security.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        // A duplicate insert fails its own transaction only, never the caller's
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.state = new State(new BloomFilter(expectedTokens, falsePositiveRate));
+    }
+
+    /**
+     * Revoke a verified token until its expiry
+     */
+    public void revoke(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null || claims.getExpiration() == null) {
+            return;
+        }
+        long expiresAt = claims.getExpiration().getTime();
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setJti(jti);
+        revokedToken.setSubject(claims.getSubject());
+        revokedToken.setExpiresAt(toLocalDateTime(expiresAt));
+        String tenantId = claims.get(JwtTokenProvider.CLAIM_TENANT_ID, String.class);
+        revokedToken.setTenantId(tenantId != null ? tenantId : SYSTEM_TENANT);
+        try {
+            transactionTemplate.executeWithoutResult(status -> revokedTokenRepository.saveAndFlush(revokedToken));
+        } catch (DataIntegrityViolationException e) {
+            // Revoked concurrently, e.g. a double-submitted logout; the unique jti keeps one row
+            log.debug("Token {} was already revoked", jti);
+        }
+
+        // Re-apply if a rebuild swapped the state while we were adding
+        State current;
+        do {
+            current = state;
+            current.add(jti, expiresAt);
+        } while (current != state);
+        log.info("Revoked token {} for {}", jti, claims.getSubject());
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null) {
+            return false;
+        }
+        return state.contains(jti, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild from the database, picking up revocations made on other nodes and
+     * dropping expired entries so the filter does not fill up over time
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-interval-ms:60000}",
+               initialDelayString = "${app.security.revocation.refresh-interval-ms:60000}")
+    public void rebuild() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            long nowMillis = System.currentTimeMillis();
+            List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(now);
+
+            State previous = state;
+            State rebuilt = new State(new BloomFilter(Math.max(expectedTokens, active.size() * 2L), falsePositiveRate));
+            for (RevokedToken token : active) {
+                rebuilt.add(token.getJti(), toEpochMillis(token.getExpiresAt()));
+            }
+            // Keep local revocations that may not be visible to this read yet
+            previous.exact.forEach((jti, expiresAt) -> {
+                if (expiresAt > nowMillis) {
+                    rebuilt.add(jti, expiresAt);
+                }
+            });
+            state = rebuilt;
+
+            long purged = revokedTokenRepository.deleteByExpiresAtBefore(now);
+            log.debug("Revocation list rebuilt with {} entries, purged {} expired", rebuilt.exact.size(), purged);
+        } catch (Exception e) {
+            log.error("Failed to rebuild token revocation list", e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class State {
+        private final BloomFilter bloom;
+        private final ConcurrentMap<String, Long> exact = new ConcurrentHashMap<>();
+
+        private State(BloomFilter bloom) {
+            this.bloom = bloom;
+        }
+
+        private void add(String jti, long expiresAt) {
+            // Exact entry first so a positive bloom probe always finds it
+            exact.put(jti, expiresAt);
+            bloom.put(jti);
+        }
+
+        private boolean contains(String jti, long now) {
+            if (!bloom.mightContain(jti)) {
+                return false;
+            }
+            Long expiresAt = exact.get(jti);
+            if (expiresAt == null) {
+                return false;
+            }
+            if (expiresAt <= now) {
+                exact.remove(jti, expiresAt);
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.saasplatform.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounded, TTL-based cache of loaded principals keyed by email. Entries are evicted by
+ * UserServiceImpl whenever a user's credentials, status or identity change. Only requests
+ * with a verified token read it; logins always load the user from the database.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+    private final Counter expirations;
+    private final Counter capacityEvictions;
+
+    public UserDetailsCache(MeterRegistry meterRegistry,
+                            @Value("${app.security.user-details-cache.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${app.security.user-details-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+        this.hits = meterRegistry.counter("security.userdetails.cache.hits");
+        this.misses = meterRegistry.counter("security.userdetails.cache.misses");
+        this.invalidations = meterRegistry.counter("security.userdetails.cache.evictions", "cause", "invalidated");
+        this.expirations = meterRegistry.counter("security.userdetails.cache.evictions", "cause", "expired");
+        this.capacityEvictions = meterRegistry.counter("security.userdetails.cache.evictions", "cause", "capacity");
+        meterRegistry.gaugeMapSize("security.userdetails.cache.size", Tags.empty(), entries);
+    }
+
+    /**
+     * Get a copy of the cached principal, or null on a miss
+     */
+    public SecurityUser get(String email) {
+        if (email == null) {
+            return null;
+        }
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            if (entries.remove(email, entry)) {
+                expirations.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.user().copy();
+    }
+
+    public void put(String email, SecurityUser user) {
+        if (email == null || user == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxSize && !entries.containsKey(email)) {
+            makeRoom(now);
+        }
+        entries.put(email, new Entry(user.copy(), now + ttlMillis));
+    }
+
+    /**
+     * Evict a user now and again once the surrounding transaction commits, so a concurrent
+     * load cannot re-cache the pre-commit row
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        evictNow(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(email);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void evictNow(String email) {
+        if (entries.remove(email) != null) {
+            invalidations.increment();
+        }
+    }
+
+    private void makeRoom(long now) {
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAt() <= now;
+            if (expired) {
+                expirations.increment();
+            }
+            return expired;
+        });
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            capacityEvictions.increment();
+        }
+    }
+
+    private record Entry(SecurityUser user, long expiresAt) {
+    }
+}
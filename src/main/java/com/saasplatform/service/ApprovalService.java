@@ -5,6 +5,8 @@ import com.saasplatform.entity.Quote;
 import com.saasplatform.entity.User;
 import com.saasplatform.repository.BookingRepository;
 import com.saasplatform.repository.QuoteRepository;
+import com.saasplatform.repository.UserRepository;
+import com.saasplatform.security.PermissionSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,22 +23,22 @@ public class ApprovalService {
     private final QuoteRepository quoteRepository;
     private final BookingRepository bookingRepository;
     private final NotificationService notificationService;
-    private final PermissionService permissionService;
+    private final UserRepository userRepository;
 
     /**
      * Submit quote for approval
      */
-    public Quote submitQuoteForApproval(Long quoteId, String tenantId, User submitter) {
+    public Quote submitQuoteForApproval(Long quoteId, String tenantId, PermissionSnapshot permissions) {
         Quote quote = quoteRepository.findByTenantIdAndId(tenantId, quoteId)
                 .orElseThrow(() -> new RuntimeException("Quote not found"));
 
-        if (!permissionService.canCreateQuotes(submitter)) {
+        if (!permissions.canCreateQuotes()) {
             throw new RuntimeException("User does not have permission to create quotes");
         }
 
         quote.setStatus(Quote.QuoteStatus.PENDING_APPROVAL);
         quote.setApprovalRequired(true);
-        quote.setUpdatedBy(submitter.getEmail());
+        quote.setUpdatedBy(permissions.getEmail());
         quote.setUpdatedAt(LocalDateTime.now());
 
         Quote savedQuote = quoteRepository.save(quote);
@@ -45,69 +47,69 @@ public class ApprovalService {
         notificationService.createQuoteApprovalNotification(
             savedQuote.getId(), 
             savedQuote.getTitle(), 
-            submitter, 
+            submitter(permissions), 
             tenantId
         );
 
-        log.info("Quote {} submitted for approval by user {}", quoteId, submitter.getEmail());
+        log.info("Quote {} submitted for approval by user {}", quoteId, permissions.getEmail());
         return savedQuote;
     }
 
     /**
      * Approve quote
      */
-    public Quote approveQuote(Long quoteId, String tenantId, User approver) {
+    public Quote approveQuote(Long quoteId, String tenantId, PermissionSnapshot permissions) {
         Quote quote = quoteRepository.findByTenantIdAndId(tenantId, quoteId)
                 .orElseThrow(() -> new RuntimeException("Quote not found"));
 
-        if (!permissionService.canApproveQuotes(approver)) {
+        if (!permissions.canApproveQuotes()) {
             throw new RuntimeException("User does not have permission to approve quotes");
         }
 
         quote.setStatus(Quote.QuoteStatus.APPROVED);
-        quote.setApprovedBy(approver.getEmail());
+        quote.setApprovedBy(permissions.getEmail());
         quote.setApprovedAt(LocalDateTime.now());
-        quote.setUpdatedBy(approver.getEmail());
+        quote.setUpdatedBy(permissions.getEmail());
         quote.setUpdatedAt(LocalDateTime.now());
 
-        log.info("Quote {} approved by user {}", quoteId, approver.getEmail());
+        log.info("Quote {} approved by user {}", quoteId, permissions.getEmail());
         return quoteRepository.save(quote);
     }
 
     /**
      * Reject quote
      */
-    public Quote rejectQuote(Long quoteId, String tenantId, User approver, String rejectionReason) {
+    public Quote rejectQuote(Long quoteId, String tenantId, PermissionSnapshot permissions, String rejectionReason) {
         Quote quote = quoteRepository.findByTenantIdAndId(tenantId, quoteId)
                 .orElseThrow(() -> new RuntimeException("Quote not found"));
 
-        if (!permissionService.canApproveQuotes(approver)) {
+        if (!permissions.canApproveQuotes()) {
             throw new RuntimeException("User does not have permission to approve quotes");
         }
 
         quote.setStatus(Quote.QuoteStatus.REJECTED);
         quote.setRejectionReason(rejectionReason);
-        quote.setUpdatedBy(approver.getEmail());
+        quote.setUpdatedBy(permissions.getEmail());
         quote.setUpdatedAt(LocalDateTime.now());
 
-        log.info("Quote {} rejected by user {} with reason: {}", quoteId, approver.getEmail(), rejectionReason);
+        log.info("Quote {} rejected by user {} with reason: {}", quoteId, permissions.getEmail(), rejectionReason);
         return quoteRepository.save(quote);
     }
 
     /**
      * Submit booking for approval
      */
-    public Booking submitBookingForApproval(Long bookingId, String tenantId, User submitter) {
+    public Booking submitBookingForApproval(Long bookingId, String tenantId, PermissionSnapshot permissions) {
         Booking booking = bookingRepository.findByTenantIdAndId(tenantId, bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
-        if (!permissionService.canCreateBookings(submitter)) {
+        if (!permissions.canCreateBookings()) {
             throw new RuntimeException("User does not have permission to create bookings");
         }
 
         booking.setStatus(Booking.BookingStatus.PENDING_APPROVAL);
         booking.setApprovalRequired(true);
-        booking.setUpdatedBy(submitter.getEmail());
+        booking.setUpdatedBy(permissions.getEmail());
         booking.setUpdatedAt(LocalDateTime.now());
 
         Booking savedBooking = bookingRepository.save(booking);
@@ -116,68 +118,77 @@ public class ApprovalService {
         notificationService.createBookingApprovalNotification(
             savedBooking.getId(), 
             savedBooking.getTitle(), 
-            submitter, 
+            submitter(permissions), 
             tenantId
         );
 
-        log.info("Booking {} submitted for approval by user {}", bookingId, submitter.getEmail());
+        log.info("Booking {} submitted for approval by user {}", bookingId, permissions.getEmail());
         return savedBooking;
     }
 
     /**
      * Approve booking
      */
-    public Booking approveBooking(Long bookingId, String tenantId, User approver) {
+    public Booking approveBooking(Long bookingId, String tenantId, PermissionSnapshot permissions) {
         Booking booking = bookingRepository.findByTenantIdAndId(tenantId, bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
-        if (!permissionService.canApproveBookings(approver)) {
+        if (!permissions.canApproveBookings()) {
             throw new RuntimeException("User does not have permission to approve bookings");
         }
 
         booking.setStatus(Booking.BookingStatus.CONFIRMED);
-        booking.setApprovedBy(approver.getEmail());
+        booking.setApprovedBy(permissions.getEmail());
         booking.setApprovedAt(LocalDateTime.now());
-        booking.setUpdatedBy(approver.getEmail());
+        booking.setUpdatedBy(permissions.getEmail());
         booking.setUpdatedAt(LocalDateTime.now());
 
-        log.info("Booking {} approved by user {}", bookingId, approver.getEmail());
+        log.info("Booking {} approved by user {}", bookingId, permissions.getEmail());
         return bookingRepository.save(booking);
     }
 
     /**
      * Reject booking
      */
-    public Booking rejectBooking(Long bookingId, String tenantId, User approver, String rejectionReason) {
+    public Booking rejectBooking(Long bookingId, String tenantId, PermissionSnapshot permissions, String rejectionReason) {
         Booking booking = bookingRepository.findByTenantIdAndId(tenantId, bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
-        if (!permissionService.canApproveBookings(approver)) {
+        if (!permissions.canApproveBookings()) {
             throw new RuntimeException("User does not have permission to approve bookings");
         }
 
         booking.setStatus(Booking.BookingStatus.REJECTED);
         booking.setRejectionReason(rejectionReason);
-        booking.setUpdatedBy(approver.getEmail());
+        booking.setUpdatedBy(permissions.getEmail());
         booking.setUpdatedAt(LocalDateTime.now());
 
-        log.info("Booking {} rejected by user {} with reason: {}", bookingId, approver.getEmail(), rejectionReason);
+        log.info("Booking {} rejected by user {} with reason: {}", bookingId, permissions.getEmail(), rejectionReason);
         return bookingRepository.save(booking);
     }
 
+    /**
+     * The authenticated caller as the notification sender; looked up by id, so it is found
+     * whichever tenant is being acted on
+     */
+    private User submitter(PermissionSnapshot permissions) {
+        return userRepository.findById(permissions.getUserId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
     /**
      * Check if user can approve the given quote
      */
-    public boolean canApproveQuote(Quote quote, User user) {
-        return permissionService.canApproveQuotes(user) && 
+    public boolean canApproveQuote(Quote quote, PermissionSnapshot permissions) {
+        return permissions.canApproveQuotes() && 
                quote.getStatus() == Quote.QuoteStatus.PENDING_APPROVAL;
     }
 
     /**
      * Check if user can approve the given booking
      */
-    public boolean canApproveBooking(Booking booking, User user) {
-        return permissionService.canApproveBookings(user) && 
+    public boolean canApproveBooking(Booking booking, PermissionSnapshot permissions) {
+        return permissions.canApproveBookings() && 
                booking.getStatus() == Booking.BookingStatus.PENDING_APPROVAL;
     }
 }
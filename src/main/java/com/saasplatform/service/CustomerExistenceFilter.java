@@ -0,0 +1,247 @@
+package com.saasplatform.service;
+
+import com.saasplatform.repository.CustomerRepository;
+import com.saasplatform.tenant.TenantChangeCounters;
+import com.saasplatform.tenant.TenantContext;
+import com.saasplatform.tenant.TenantDescriptor;
+import com.saasplatform.tenant.TenantRegistry;
+import com.saasplatform.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-tenant Bloom filters over customer emails and numbers answering the form-validation
+ * "is this taken?" checks. A negative answer is served from memory; a possible hit falls
+ * through to the exact database query. Values are added as customers are written on this
+ * node and never removed, so deletes and edits only cost an occasional database check until
+ * the next rebuild. Customers written on other nodes are picked up by the periodic refresh,
+ * which rebuilds tenants whose shared change counter moved; until then a negative for such
+ * a value can be stale, so callers must still rely on the database to reject duplicates.
+ */
+@Component
+@Slf4j
+public class CustomerExistenceFilter {
+
+    private static final String TABLE = "customers";
+
+    private final CustomerRepository customerRepository;
+    private final TenantRegistry tenantRegistry;
+    private final TenantChangeCounters tenantChangeCounters;
+    private final double falsePositiveRate;
+    private final long minExpectedInsertions;
+    private final long maxBytes;
+
+    private final ConcurrentMap<String, TenantFilters> tenants = new ConcurrentHashMap<>();
+    private final AtomicLong memoryBytes = new AtomicLong();
+
+    private final Counter memoryHits;
+    private final Counter databaseChecks;
+    private final Counter falsePositives;
+
+    public CustomerExistenceFilter(CustomerRepository customerRepository,
+                                   TenantRegistry tenantRegistry,
+                                   TenantChangeCounters tenantChangeCounters,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.customer-existence.false-positive-rate:0.01}") double falsePositiveRate,
+                                   @Value("${app.customer-existence.min-expected-customers:1024}") long minExpectedInsertions,
+                                   @Value("${app.customer-existence.max-memory-mb:64}") long maxMemoryMb) {
+        this.customerRepository = customerRepository;
+        this.tenantRegistry = tenantRegistry;
+        this.tenantChangeCounters = tenantChangeCounters;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.maxBytes = maxMemoryMb * 1024 * 1024;
+        this.memoryHits = meterRegistry.counter("customer.existence.checks", "result", "memory");
+        this.databaseChecks = meterRegistry.counter("customer.existence.checks", "result", "database");
+        this.falsePositives = meterRegistry.counter("customer.existence.false.positives");
+        Gauge.builder("customer.existence.filter.memory", memoryBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("customer.existence.filter.tenants", tenants, map -> map.size())
+                .register(meterRegistry);
+        Gauge.builder("customer.existence.filter.false.positive.rate", () -> falsePositiveRate)
+                .description("Configured target false-positive rate")
+                .register(meterRegistry);
+    }
+
+    public boolean emailExists(String tenantId, String email) {
+        Filters filters = readyFilters(tenantId);
+        if (filters != null && !filters.emails.mightContain(email)) {
+            memoryHits.increment();
+            return false;
+        }
+        databaseChecks.increment();
+        boolean exists = customerRepository.existsByTenantIdAndEmail(tenantId, email);
+        if (filters != null && !exists) {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    public boolean customerNumberExists(String tenantId, String customerNumber) {
+        Filters filters = readyFilters(tenantId);
+        if (filters != null && !filters.numbers.mightContain(customerNumber)) {
+            memoryHits.increment();
+            return false;
+        }
+        databaseChecks.increment();
+        boolean exists = customerRepository.existsByTenantIdAndCustomerNumber(tenantId, customerNumber);
+        if (filters != null && !exists) {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    /**
+     * Record a written customer, both now and again once the surrounding transaction commits.
+     * Adding before commit closes the window where another request could be told the value
+     * is free; adding after commit covers a rebuild that read the table before the commit.
+     * A rolled-back write only leaves a false positive.
+     */
+    public void add(String tenantId, String email, String customerNumber) {
+        apply(tenantId, email, customerNumber);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(tenantId, email, customerNumber);
+                }
+            });
+        }
+    }
+
+    private void apply(String tenantId, String email, String customerNumber) {
+        TenantFilters tenant = tenants.get(tenantId);
+        if (tenant == null) {
+            return;
+        }
+        Filters ready = tenant.ready;
+        Filters building = tenant.building;
+        if (ready != null) {
+            ready.put(email, customerNumber);
+        }
+        if (building != null) {
+            building.put(email, customerNumber);
+        }
+    }
+
+    /**
+     * Rebuild a tenant's filters now, e.g. after writes that bypassed {@link #add}
+     */
+    public void rebuild(String tenantId) {
+        build(tenantId, tenants.computeIfAbsent(tenantId, key -> new TenantFilters()));
+    }
+
+    /**
+     * Rebuild every loaded tenant whose customers changed since its last build, on any node,
+     * dropping values of deleted or edited customers and resizing for growth
+     */
+    @Scheduled(fixedDelayString = "${app.customer-existence.refresh-interval-ms:30000}",
+               initialDelayString = "${app.customer-existence.refresh-interval-ms:30000}")
+    public void rebuildAll() {
+        for (Map.Entry<String, TenantFilters> entry : List.copyOf(tenants.entrySet())) {
+            try {
+                if (tenantChangeCounters.counter(entry.getKey(), TABLE) != entry.getValue().builtAtCounter) {
+                    build(entry.getKey(), entry.getValue());
+                }
+            } catch (Exception e) {
+                log.error("Failed to refresh customer existence filters for tenant {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    private Filters readyFilters(String tenantId) {
+        TenantFilters tenant = tenants.get(tenantId);
+        if (tenant == null) {
+            TenantFilters created = new TenantFilters();
+            tenant = tenants.putIfAbsent(tenantId, created);
+            if (tenant == null) {
+                // First check for this tenant builds its filters; this check goes to the database
+                build(tenantId, created);
+                return created.ready;
+            }
+        }
+        return tenant.ready;
+    }
+
+    private void build(String tenantId, TenantFilters tenant) {
+        synchronized (tenant) {
+            TenantDescriptor previousTenant = TenantContext.getTenant();
+            try {
+                // Read before the customers, so a change racing the load triggers another rebuild
+                long counter = tenantChangeCounters.counter(tenantId, TABLE);
+                // Scheduled rebuilds run without a tenant; route to the tenant's placement
+                TenantContext.setTenant(tenantRegistry.findByTenantId(tenantId));
+                long count = customerRepository.countByTenantId(tenantId);
+                long expected = Math.max(minExpectedInsertions, count * 2);
+                Filters filters = new Filters(expected, falsePositiveRate);
+                Filters previous = tenant.ready;
+                long previousBytes = previous != null ? previous.memoryBytes() : 0L;
+                if (memoryBytes.get() - previousBytes + filters.memoryBytes() > maxBytes) {
+                    log.warn("Customer existence filters for tenant {} would exceed the memory budget; using database checks",
+                            tenantId);
+                    tenant.ready = null;
+                    memoryBytes.addAndGet(-previousBytes);
+                    return;
+                }
+
+                // Writes during the load are applied to both the old and the new filters
+                tenant.building = filters;
+                for (Object[] row : customerRepository.findEmailsAndNumbersByTenantId(tenantId)) {
+                    filters.put((String) row[0], (String) row[1]);
+                }
+                tenant.ready = filters;
+                tenant.builtAtCounter = counter;
+                memoryBytes.addAndGet(filters.memoryBytes() - previousBytes);
+                log.debug("Built customer existence filters for tenant {} sized for {} customers", tenantId, expected);
+            } catch (Exception e) {
+                log.error("Failed to build customer existence filters for tenant {}", tenantId, e);
+            } finally {
+                tenant.building = null;
+                TenantContext.setTenant(previousTenant);
+            }
+        }
+    }
+
+    private static final class TenantFilters {
+        private volatile Filters ready;
+        private volatile Filters building;
+        private volatile long builtAtCounter = -1L;
+    }
+
+    private static final class Filters {
+        private final BloomFilter emails;
+        private final BloomFilter numbers;
+
+        private Filters(long expectedInsertions, double falsePositiveRate) {
+            this.emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+            this.numbers = new BloomFilter(expectedInsertions, falsePositiveRate);
+        }
+
+        private void put(String email, String customerNumber) {
+            if (email != null) {
+                emails.put(email);
+            }
+            if (customerNumber != null) {
+                numbers.put(customerNumber);
+            }
+        }
+
+        private long memoryBytes() {
+            return emails.memoryBytes() + numbers.memoryBytes();
+        }
+    }
+}
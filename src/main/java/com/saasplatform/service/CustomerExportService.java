@@ -0,0 +1,138 @@
+package com.saasplatform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasplatform.entity.Customer;
+import com.saasplatform.repository.CustomerRepository;
+import com.saasplatform.util.CsvWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a tenant's customers as CSV or NDJSON straight from a forward-only database cursor.
+ * Each entity is detached once written, so neither the persistence context nor the output
+ * buffer grows with the number of customers.
+ */
+@Service
+@Slf4j
+public class CustomerExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Same column names the importer accepts, so an export can be imported elsewhere */
+    private static final String[] CSV_HEADER = {"id", "customerNumber", "companyName", "contactPerson", "email",
+            "phone", "website", "address", "city", "state", "country", "zipCode", "status", "customerType",
+            "industry", "annualRevenue", "employeeCount", "source", "notes", "createdAt"};
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException for formats other than csv and ndjson
+         */
+        public static Format from(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + name);
+            }
+        }
+    }
+
+    private final CustomerRepository customerRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CustomerExportService(CustomerRepository customerRepository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.customer-export.fetch-size:500}") int fetchSize) {
+        this.customerRepository = customerRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Stream every customer of the tenant to the output, which is flushed but not closed
+     *
+     * @return number of customers written
+     */
+    @Transactional(readOnly = true)
+    public long export(String tenantId, Format format, boolean gzip, OutputStream output) throws IOException {
+        long start = System.currentTimeMillis();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(output, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                compressed != null ? compressed : output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        CsvWriter csv = format == Format.CSV ? new CsvWriter(writer) : null;
+        if (csv != null) {
+            csv.writeRecord((Object[]) CSV_HEADER);
+        }
+
+        long count = 0;
+        try (Stream<Customer> customers = customerRepository.streamByTenantId(tenantId, fetchSize)) {
+            Iterator<Customer> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                Customer customer = iterator.next();
+                if (csv != null) {
+                    writeCsv(csv, customer);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(customer));
+                    writer.write('\n');
+                }
+                entityManager.detach(customer);
+                count++;
+            }
+        }
+
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        output.flush();
+        log.info("Exported {} customers for tenant {} as {} in {} ms",
+                count, tenantId, format, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    private static void writeCsv(CsvWriter csv, Customer customer) throws IOException {
+        csv.writeRecord(customer.getId(), customer.getCustomerNumber(), customer.getCompanyName(),
+                customer.getContactPerson(), customer.getEmail(), customer.getPhone(), customer.getWebsite(),
+                customer.getAddress(), customer.getCity(), customer.getState(), customer.getCountry(),
+                customer.getZipCode(), customer.getStatus(), customer.getCustomerType(), customer.getIndustry(),
+                customer.getAnnualRevenue(), customer.getEmployeeCount(), customer.getSource(),
+                customer.getNotes(), customer.getCreatedAt());
+    }
+}
@@ -0,0 +1,608 @@
+package com.saasplatform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasplatform.dto.ImportJobStatus;
+import com.saasplatform.entity.Customer;
+import com.saasplatform.entity.DocumentSequence.DocumentType;
+import com.saasplatform.repository.CustomerRepository;
+import com.saasplatform.tenant.TenantChangeCounters;
+import com.saasplatform.tenant.TenantContext;
+import com.saasplatform.tenant.TenantWriteFence;
+import com.saasplatform.util.CsvReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk customer import from CSV or NDJSON. The upload is spooled to a temporary file as it
+ * arrives, then parsed one row at a time on a small dedicated pool: rows are validated,
+ * emails are checked against existing customers with one IN query per batch, and inserts go
+ * out as JDBC batches, each in its own transaction. Progress and per-row errors are written
+ * to customer_import_jobs after each batch, so a status poll may land on any node.
+ */
+@Service
+@Slf4j
+public class CustomerImportService implements DisposableBean {
+
+    private static final String INSERT_SQL = "INSERT INTO customers (tenant_id, customer_number, company_name, " +
+            "contact_person, email, phone, website, address, city, state, country, zip_code, status, customer_type, " +
+            "industry, annual_revenue, employee_count, source, notes, created_at, created_by, updated_by, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final long FENCE_RETRY_MILLIS = 200;
+    private static final String INSERT_JOB_SQL = "INSERT INTO customer_import_jobs (id, tenant_id, format, status, " +
+            "started_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_JOB_SQL = "UPDATE customer_import_jobs SET status = ?, processed_rows = ?, " +
+            "imported_rows = ?, failed_rows = ?, errors = ?, message = ?, finished_at = ?, updated_at = ? WHERE id = ?";
+    private static final String SELECT_JOB_SQL = "SELECT id, status, format, processed_rows, imported_rows, failed_rows, " +
+            "errors, message, started_at, finished_at FROM customer_import_jobs WHERE id = ? AND tenant_id = ?";
+    private static final TypeReference<List<ImportJobStatus.RowError>> ROW_ERRORS = new TypeReference<>() {
+    };
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * @throws IllegalArgumentException for content types other than CSV and NDJSON
+         */
+        public static Format fromContentType(String contentType) {
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+        }
+    }
+
+    private final CustomerRepository customerRepository;
+    private final CustomerSearchIndex customerSearchIndex;
+    private final CustomerExistenceFilter customerExistenceFilter;
+    private final DocumentNumberGenerator documentNumberGenerator;
+    private final TenantChangeCounters tenantChangeCounters;
+    private final TenantWriteFence writeFence;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxErrors;
+    private final long maxBytes;
+    private final long retentionMillis;
+    private final long fenceWaitMillis;
+    private final ThreadPoolExecutor executor;
+    // Jobs queued or running on this node, failed on shutdown so they do not stay open forever
+    private final ConcurrentMap<String, ImportJob> localJobs = new ConcurrentHashMap<>();
+
+    public CustomerImportService(CustomerRepository customerRepository,
+                                 CustomerSearchIndex customerSearchIndex,
+                                 CustomerExistenceFilter customerExistenceFilter,
+                                 DocumentNumberGenerator documentNumberGenerator,
+                                 TenantChangeCounters tenantChangeCounters,
+                                 TenantWriteFence writeFence,
+                                 ObjectMapper objectMapper,
+                                 DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.customer-import.batch-size:500}") int batchSize,
+                                 @Value("${app.customer-import.max-errors:1000}") int maxErrors,
+                                 @Value("${app.customer-import.max-size-mb:100}") long maxSizeMb,
+                                 @Value("${app.customer-import.job-retention-minutes:60}") long retentionMinutes,
+                                 @Value("${app.customer-import.fence-wait-seconds:600}") long fenceWaitSeconds,
+                                 @Value("${app.customer-import.threads:2}") int threads,
+                                 @Value("${app.customer-import.queue-capacity:16}") int queueCapacity) {
+        this.customerRepository = customerRepository;
+        this.customerSearchIndex = customerSearchIndex;
+        this.customerExistenceFilter = customerExistenceFilter;
+        this.documentNumberGenerator = documentNumberGenerator;
+        this.tenantChangeCounters = tenantChangeCounters;
+        this.writeFence = writeFence;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxErrors = maxErrors;
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+        this.fenceWaitMillis = TimeUnit.SECONDS.toMillis(fenceWaitSeconds);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "customer-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Spool the upload and queue it for import
+     *
+     * @throws IllegalArgumentException if the upload exceeds the size limit
+     * @throws java.util.concurrent.RejectedExecutionException if the import queue is full
+     */
+    public ImportJobStatus startImport(String tenantId, Format format, InputStream body) throws IOException {
+        Path spool = Files.createTempFile("customer-import-", format == Format.CSV ? ".csv" : ".ndjson");
+        try {
+            spoolUpload(body, spool);
+            ImportJob job = new ImportJob(UUID.randomUUID().toString(), tenantId, format);
+            jdbcTemplate.update(INSERT_JOB_SQL, job.id, tenantId, format.name(), job.status,
+                    Timestamp.valueOf(job.startedAt), Timestamp.valueOf(job.startedAt));
+            localJobs.put(job.id, job);
+            try {
+                executor.execute(TenantContext.wrap(() -> runImport(job, spool)));
+            } catch (RuntimeException e) {
+                localJobs.remove(job.id);
+                jdbcTemplate.update("DELETE FROM customer_import_jobs WHERE id = ?", job.id);
+                throw e;
+            }
+            log.info("Queued customer import {} for tenant {}", job.id, tenantId);
+            return job.toStatus();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+    }
+
+    public Optional<ImportJobStatus> getStatus(String tenantId, String jobId) {
+        return jdbcTemplate.query(SELECT_JOB_SQL, (rs, rowNum) -> {
+            Timestamp finishedAt = rs.getTimestamp("finished_at");
+            return new ImportJobStatus(rs.getString("id"), rs.getString("status"), rs.getString("format"),
+                    rs.getLong("processed_rows"), rs.getLong("imported_rows"), rs.getLong("failed_rows"),
+                    readErrors(rs.getString("errors")), rs.getString("message"),
+                    rs.getTimestamp("started_at").toLocalDateTime(),
+                    finishedAt != null ? finishedAt.toLocalDateTime() : null);
+        }, jobId, tenantId).stream().findFirst();
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeFinishedJobs() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - retentionMillis);
+        jdbcTemplate.update("DELETE FROM customer_import_jobs WHERE finished_at < ?", cutoff);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        for (ImportJob job : localJobs.values()) {
+            job.finish("FAILED", "Server shut down before the import finished");
+            saveJob(job);
+        }
+    }
+
+    private void spoolUpload(InputStream body, Path spool) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(spool)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                written += read;
+                if (written > maxBytes) {
+                    throw new IllegalArgumentException("Import exceeds the maximum size of " + maxBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private void runImport(ImportJob job, Path spool) {
+        job.status = "RUNNING";
+        saveJob(job);
+        log.info("Starting customer import {} for tenant {}", job.id, job.tenantId);
+        try (BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+            RowSource rows = job.format == Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+            Set<String> seenEmails = new HashSet<>();
+            List<PendingRow> batch = new ArrayList<>(batchSize);
+            long rowNumber = 0;
+            while (true) {
+                Map<String, String> values;
+                try {
+                    values = rows.next();
+                } catch (IllegalArgumentException e) {
+                    job.processed.incrementAndGet();
+                    job.addError(++rowNumber, e.getMessage());
+                    if (e instanceof UnreadableInputException) {
+                        break;
+                    }
+                    continue;
+                }
+                if (values == null) {
+                    break;
+                }
+                rowNumber++;
+                job.processed.incrementAndGet();
+                try {
+                    Customer customer = toCustomer(values);
+                    if (!seenEmails.add(customer.getEmail().toLowerCase(Locale.ROOT))) {
+                        throw new IllegalArgumentException("Duplicate email in import: " + customer.getEmail());
+                    }
+                    batch.add(new PendingRow(rowNumber, customer));
+                } catch (IllegalArgumentException e) {
+                    job.addError(rowNumber, e.getMessage());
+                }
+                if (batch.size() >= batchSize) {
+                    writeBatch(job, batch);
+                    batch.clear();
+                }
+            }
+            writeBatch(job, batch);
+            job.finish("COMPLETED", null);
+            log.info("Finished customer import {}: {} imported, {} failed", job.id, job.imported.get(), job.failed.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish("FAILED", "Import interrupted");
+        } catch (Exception e) {
+            log.error("Customer import {} failed", job.id, e);
+            job.finish("FAILED", e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool file {}", spool, e);
+            }
+            if (job.imported.get() > 0) {
+                customerSearchIndex.invalidate(job.tenantId);
+            }
+            localJobs.remove(job.id);
+            saveJob(job);
+        }
+    }
+
+    /**
+     * Write the job's progress; a failed write is logged and caught up by the next one
+     */
+    private void saveJob(ImportJob job) {
+        ImportJobStatus status = job.toStatus();
+        try {
+            jdbcTemplate.update(UPDATE_JOB_SQL, status.getStatus(), status.getProcessedRows(), status.getImportedRows(),
+                    status.getFailedRows(), objectMapper.writeValueAsString(status.getErrors()), status.getMessage(),
+                    status.getFinishedAt() != null ? Timestamp.valueOf(status.getFinishedAt()) : null,
+                    Timestamp.valueOf(LocalDateTime.now()), job.id);
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.warn("Could not save progress of customer import {}", job.id, e);
+        }
+    }
+
+    private List<ImportJobStatus.RowError> readErrors(String errors) {
+        if (errors == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(errors, ROW_ERRORS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable import errors", e);
+        }
+    }
+
+    /**
+     * Write one batch inside the tenant's write fence, so a placement move either waits for it
+     * or holds it back until the tenant is routed to its new placement
+     */
+    private void writeBatch(ImportJob job, List<PendingRow> batch) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        enterFence(job);
+        try {
+            writeFencedBatch(job, batch);
+        } finally {
+            writeFence.exit(job.tenantId);
+        }
+        saveJob(job);
+    }
+
+    private void enterFence(ImportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + fenceWaitMillis;
+        while (!writeFence.tryEnter(job.tenantId)) {
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IllegalStateException("Tenant writes stayed on hold for over " + fenceWaitMillis / 1000 + " s");
+            }
+            Thread.sleep(FENCE_RETRY_MILLIS);
+        }
+    }
+
+    private void writeFencedBatch(ImportJob job, List<PendingRow> batch) {
+        List<String> emails = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            emails.add(row.customer.getEmail().toLowerCase(Locale.ROOT));
+        }
+        Set<String> existing = new HashSet<>(customerRepository.findExistingEmailsIgnoreCase(job.tenantId, emails));
+
+        List<PendingRow> inserts = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            if (existing.contains(row.customer.getEmail().toLowerCase(Locale.ROOT))) {
+                job.addError(row.number, "Customer with email " + row.customer.getEmail() + " already exists");
+            } else {
+                row.customer.setCustomerNumber(documentNumberGenerator.next(job.tenantId, DocumentType.CUSTOMER));
+                inserts.add(row);
+            }
+        }
+        if (inserts.isEmpty()) {
+            return;
+        }
+
+        try {
+            insert(job.tenantId, inserts);
+            job.imported.addAndGet(inserts.size());
+        } catch (DataAccessException e) {
+            // Retry one row at a time so only the offending rows are reported
+            log.debug("Batch insert failed for import {}, retrying rows individually", job.id, e);
+            for (PendingRow row : inserts) {
+                try {
+                    insert(job.tenantId, List.of(row));
+                    job.imported.incrementAndGet();
+                } catch (DataAccessException rowFailure) {
+                    job.addError(row.number, "Insert failed: " + rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(String tenantId, List<PendingRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (PendingRow row : rows) {
+                customerExistenceFilter.add(tenantId, row.customer.getEmail(), row.customer.getCustomerNumber());
+            }
+            // JDBC inserts bypass entity listeners
+            tenantChangeCounters.changed(tenantId, "customers");
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                Customer customer = row.customer;
+                ps.setString(1, tenantId);
+                ps.setString(2, customer.getCustomerNumber());
+                ps.setString(3, customer.getCompanyName());
+                ps.setString(4, customer.getContactPerson());
+                ps.setString(5, customer.getEmail());
+                ps.setString(6, customer.getPhone());
+                ps.setString(7, customer.getWebsite());
+                ps.setString(8, customer.getAddress());
+                ps.setString(9, customer.getCity());
+                ps.setString(10, customer.getState());
+                ps.setString(11, customer.getCountry());
+                ps.setString(12, customer.getZipCode());
+                ps.setString(13, customer.getStatus().name());
+                ps.setString(14, customer.getCustomerType().name());
+                ps.setString(15, customer.getIndustry());
+                ps.setBigDecimal(16, customer.getAnnualRevenue());
+                ps.setObject(17, customer.getEmployeeCount());
+                ps.setString(18, customer.getSource());
+                ps.setString(19, customer.getNotes());
+                ps.setTimestamp(20, now);
+                ps.setString(21, "import");
+                ps.setString(22, "import");
+            });
+        });
+    }
+
+    /**
+     * Map a row keyed by normalized column name onto a customer
+     *
+     * @throws IllegalArgumentException if the row is invalid
+     */
+    private Customer toCustomer(Map<String, String> values) {
+        Customer customer = new Customer();
+        customer.setCompanyName(values.get("companyname"));
+        customer.setContactPerson(values.get("contactperson"));
+        customer.setEmail(values.get("email"));
+        customer.setPhone(values.get("phone"));
+        customer.setWebsite(values.get("website"));
+        customer.setAddress(values.get("address"));
+        customer.setCity(values.get("city"));
+        customer.setState(values.get("state"));
+        customer.setCountry(values.get("country"));
+        customer.setZipCode(values.get("zipcode"));
+        customer.setIndustry(values.get("industry"));
+        customer.setSource(values.get("source"));
+        customer.setNotes(values.get("notes"));
+
+        if (customer.getCompanyName() == null) {
+            throw new IllegalArgumentException("companyName is required");
+        }
+        String email = customer.getEmail();
+        if (email == null || email.indexOf('@') <= 0 || email.indexOf('@') == email.length() - 1) {
+            throw new IllegalArgumentException("A valid email is required");
+        }
+
+        customer.setStatus(parseEnum(Customer.CustomerStatus.class, values.get("status"), Customer.CustomerStatus.PROSPECT));
+        customer.setCustomerType(parseEnum(Customer.CustomerType.class, values.get("customertype"), Customer.CustomerType.SMALL_BUSINESS));
+        try {
+            String revenue = values.get("annualrevenue");
+            customer.setAnnualRevenue(revenue != null ? new BigDecimal(revenue) : null);
+            String employees = values.get("employeecount");
+            customer.setEmployeeCount(employees != null ? Integer.valueOf(employees) : null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("annualRevenue and employeeCount must be numbers");
+        }
+        return customer;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, E defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + type.getSimpleName() + ": " + value);
+        }
+    }
+
+    private RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return () -> null;
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String name : header) {
+            columns.add(normalizeColumn(name));
+        }
+        return () -> {
+            List<String> fields;
+            do {
+                try {
+                    fields = csv.next();
+                } catch (IllegalArgumentException e) {
+                    throw new UnreadableInputException(e.getMessage());
+                }
+            } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() > columns.size()) {
+                throw new IllegalArgumentException("Row has " + fields.size() + " fields, header has " + columns.size());
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                putValue(values, columns.get(i), fields.get(i));
+            }
+            return values;
+        };
+    }
+
+    private RowSource ndjsonRows(BufferedReader reader) {
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            Map<?, ?> object;
+            try {
+                object = objectMapper.readValue(line, Map.class);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid JSON object");
+            }
+            Map<String, String> values = new HashMap<>();
+            for (Map.Entry<?, ?> entry : object.entrySet()) {
+                if (entry.getValue() != null) {
+                    putValue(values, normalizeColumn(String.valueOf(entry.getKey())), String.valueOf(entry.getValue()));
+                }
+            }
+            return values;
+        };
+    }
+
+    private static void putValue(Map<String, String> values, String column, String value) {
+        String trimmed = value.trim();
+        if (!trimmed.isEmpty()) {
+            values.put(column, trimmed);
+        }
+    }
+
+    /**
+     * "Company Name", "company_name" and "companyName" all map to the same column
+     */
+    private static String normalizeColumn(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        /**
+         * Next row keyed by normalized column name, or null at end of input
+         *
+         * @throws IllegalArgumentException if the row cannot be parsed
+         */
+        Map<String, String> next() throws IOException;
+    }
+
+    /** The rest of the input cannot be parsed, e.g. an unterminated quote */
+    private static final class UnreadableInputException extends IllegalArgumentException {
+        private UnreadableInputException(String message) {
+            super(message);
+        }
+    }
+
+    private record PendingRow(long number, Customer customer) {
+    }
+
+    private final class ImportJob {
+        private final String id;
+        private final String tenantId;
+        private final Format format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ImportJobStatus.RowError> errors = new ArrayList<>();
+        private volatile String status = "QUEUED";
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        private ImportJob(String id, String tenantId, Format format) {
+            this.id = id;
+            this.tenantId = tenantId;
+            this.format = format;
+        }
+
+        private void addError(long row, String error) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new ImportJobStatus.RowError(row, error));
+                }
+            }
+        }
+
+        private void finish(String finalStatus, String finalMessage) {
+            this.message = finalMessage;
+            this.finishedAt = LocalDateTime.now();
+            this.status = finalStatus;
+        }
+
+        private ImportJobStatus toStatus() {
+            List<ImportJobStatus.RowError> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = List.copyOf(errors);
+            }
+            return new ImportJobStatus(id, status, format.name(), processed.get(), imported.get(), failed.get(),
+                    errorsCopy, message, startedAt, finishedAt);
+        }
+    }
+}
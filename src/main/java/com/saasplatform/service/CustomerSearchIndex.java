@@ -0,0 +1,96 @@
+package com.saasplatform.service;
+
+import com.saasplatform.entity.Customer;
+import com.saasplatform.repository.CustomerRepository;
+import com.saasplatform.tenant.TenantChangeCounters;
+import com.saasplatform.util.TrigramIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-tenant trigram index over customer company name, contact person and email, cached
+ * and kept current as described on {@link TenantIndexCache}
+ */
+@Component
+public class CustomerSearchIndex extends TenantIndexCache<CustomerSearchIndex.CustomerIndex, String[]> {
+
+    private static final int COMPANY_NAME_WEIGHT = 3;
+    private static final int CONTACT_PERSON_WEIGHT = 2;
+    private static final int EMAIL_WEIGHT = 1;
+
+    private final CustomerRepository customerRepository;
+
+    public CustomerSearchIndex(CustomerRepository customerRepository,
+                               TenantChangeCounters tenantChangeCounters,
+                               @Value("${app.search.customer.max-memory-mb:256}") long maxMemoryMb,
+                               @Value("${app.search.customer.staleness-check-ms:30000}") long stalenessCheckMillis) {
+        super("customer search index", "customers", tenantChangeCounters, maxMemoryMb, stalenessCheckMillis);
+        this.customerRepository = customerRepository;
+    }
+
+    /**
+     * Ranked ids of the tenant's customers matching the term, or empty if the index cannot
+     * answer right now (still loading, or the tenant exceeds the budget)
+     */
+    public Optional<List<Long>> search(String tenantId, String term) {
+        return query(tenantId, index -> index.trigrams.search(term));
+    }
+
+    /**
+     * Index a created or updated customer once the surrounding transaction commits
+     */
+    public void indexCustomer(Customer customer) {
+        putAfterCommit(customer.getTenantId(), customer.getId(),
+                new String[]{customer.getCompanyName(), customer.getContactPerson(), customer.getEmail()});
+    }
+
+    /**
+     * Drop a deleted customer once the surrounding transaction commits
+     */
+    public void removeCustomer(String tenantId, Long id) {
+        removeAfterCommit(tenantId, id);
+    }
+
+    @Override
+    protected CustomerIndex newIndex() {
+        return new CustomerIndex();
+    }
+
+    @Override
+    protected Map<Long, String[]> loadEntries(String tenantId) {
+        Map<Long, String[]> entries = new LinkedHashMap<>();
+        for (Object[] row : customerRepository.findSearchFieldsByTenantId(tenantId)) {
+            entries.put((Long) row[0], new String[]{(String) row[1], (String) row[2], (String) row[3]});
+        }
+        return entries;
+    }
+
+    static final class CustomerIndex implements TenantIndexCache.Index<String[]> {
+        private final TrigramIndex trigrams = new TrigramIndex(COMPANY_NAME_WEIGHT, CONTACT_PERSON_WEIGHT, EMAIL_WEIGHT);
+
+        @Override
+        public void put(Long id, String[] fields) {
+            trigrams.put(id, fields);
+        }
+
+        @Override
+        public void remove(Long id) {
+            trigrams.remove(id);
+        }
+
+        @Override
+        public int size() {
+            return trigrams.size();
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return trigrams.estimatedBytes();
+        }
+    }
+}
@@ -1,22 +1,74 @@
 package com.saasplatform.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.saasplatform.dto.CursorPage;
+import com.saasplatform.dto.CustomerFilter;
+import com.saasplatform.dto.EntityVersion;
 import com.saasplatform.entity.Customer;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 public interface CustomerService {
 
     List<Customer> getAllCustomers(String tenantId);
+
+    /**
+     * Keyset-paginated listing of customers matching every criterion of the filter,
+     * sorted by id, companyName or createdAt
+     *
+     * @param cursor opaque cursor from a previous page, or null for the first page
+     * @throws IllegalArgumentException for an unknown sort or enum value, or a cursor from a different sort
+     */
+    CursorPage<Customer> getCustomerPage(String tenantId, CustomerFilter filter, String sort, String direction,
+                                         String cursor, int limit, boolean includeTotal);
+
+    /**
+     * All customers matching every criterion of the filter, in id order
+     *
+     * @throws IllegalArgumentException for an unknown status or type
+     */
+    List<Customer> findCustomers(String tenantId, CustomerFilter filter);
     
     Optional<Customer> getCustomerById(String tenantId, Long id);
     
+    Optional<EntityVersion> getCustomerVersion(String tenantId, Long id);
+    
     Optional<Customer> getCustomerByNumber(String tenantId, String customerNumber);
     
     Customer createCustomer(String tenantId, Customer customer);
     
     Customer updateCustomer(String tenantId, Long id, Customer customer);
     
+    /**
+     * Apply a JSON merge patch; only supplied fields change and only changed columns are written
+     *
+     * @param ifMatch If-Match header compared against the loaded row's version in the same
+     *        transaction, or null for an unconditional patch
+     * @throws IllegalArgumentException for fields that cannot be patched or invalid values
+     * @throws org.springframework.dao.EmptyResultDataAccessException if the customer does not exist
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the customer does not
+     *         match If-Match or was changed concurrently
+     */
+    Customer patchCustomer(String tenantId, Long id, JsonNode patch, String ifMatch);
+    
+    /**
+     * Apply the same merge patch to many customers in one set-based UPDATE
+     *
+     * @return number of customers updated
+     * @throws IllegalArgumentException for fields that cannot be batch-patched or invalid values
+     */
+    int patchCustomers(String tenantId, List<Long> ids, JsonNode patch);
+    
+    /**
+     * Record contact with the customer on the given day; written by the touch buffer's next
+     * flush and never moves the last contact date backwards
+     *
+     * @throws org.springframework.dao.EmptyResultDataAccessException if the customer does not exist
+     */
+    void recordContact(String tenantId, Long id, LocalDate date);
+    
     void deleteCustomer(String tenantId, Long id);
     
     List<Customer> searchCustomers(String tenantId, String searchTerm);
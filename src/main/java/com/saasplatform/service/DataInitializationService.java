@@ -14,15 +14,13 @@ import com.saasplatform.repository.NotificationRepository;
 import com.saasplatform.repository.RoleRepository;
 import com.saasplatform.repository.SystemSettingsRepository;
 import com.saasplatform.repository.UserRepository;
+import com.saasplatform.security.RoleCatalog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
-import java.util.Set;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -35,6 +33,7 @@ public class DataInitializationService implements CommandLineRunner {
     private final NotificationRepository notificationRepository;
     private final SystemSettingsRepository systemSettingsRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RoleCatalog roleCatalog;
 
     @Override
     public void run(String... args) throws Exception {
@@ -70,6 +69,7 @@ public class DataInitializationService implements CommandLineRunner {
         Role superAdminRole = createRole("SUPER_ADMIN", "Super Administrator", Role.RoleType.SYSTEM);
         Role companyAdminRole = createRole("COMPANY_ADMIN", "Company Administrator", Role.RoleType.SYSTEM);
         Role staffRole = createRole("STAFF", "Staff Member", Role.RoleType.SYSTEM);
+        roleCatalog.refreshAfterCommit();
 
         // Create super admin user
         User superAdmin = new User();
@@ -84,9 +84,7 @@ public class DataInitializationService implements CommandLineRunner {
         superAdmin.setCreatedBy("system");
         superAdmin.setUpdatedBy("system");
         
-        Set<Role> superAdminRoles = new HashSet<>();
-        superAdminRoles.add(superAdminRole);
-        superAdmin.setRoles(superAdminRoles);
+        superAdmin.getRoleIds().add(superAdminRole.getId());
         
         userRepository.save(superAdmin);
         
@@ -103,9 +101,7 @@ public class DataInitializationService implements CommandLineRunner {
         admin.setCreatedBy("system");
         admin.setUpdatedBy("system");
         
-        Set<Role> adminRoles = new HashSet<>();
-        adminRoles.add(companyAdminRole);
-        admin.setRoles(adminRoles);
+        admin.getRoleIds().add(companyAdminRole.getId());
         
         userRepository.save(admin);
         
@@ -122,9 +118,7 @@ public class DataInitializationService implements CommandLineRunner {
         staff.setCreatedBy("system");
         staff.setUpdatedBy("system");
         
-        Set<Role> staffRoles = new HashSet<>();
-        staffRoles.add(staffRole);
-        staff.setRoles(staffRoles);
+        staff.getRoleIds().add(staffRole.getId());
         
         userRepository.save(staff);
         
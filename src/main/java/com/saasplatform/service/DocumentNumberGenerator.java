@@ -0,0 +1,146 @@
+package com.saasplatform.service;
+
+import com.saasplatform.entity.DocumentSequence;
+import com.saasplatform.entity.DocumentSequence.DocumentType;
+import com.saasplatform.repository.DocumentSequenceRepository;
+import com.saasplatform.util.NumberTemplate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Per-tenant, per-document-type number generator. Each node reserves a block of numbers
+ * from the document_sequences row under a row lock in its own transaction, then hands them
+ * out from memory, so concurrent creates never see the same number and only one insert in
+ * every block touches the counter. Numbers of a block unused at shutdown are skipped.
+ */
+@Component
+@Slf4j
+public class DocumentNumberGenerator {
+
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final DocumentSequenceRepository documentSequenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final Map<DocumentType, NumberTemplate> templates = new EnumMap<>(DocumentType.class);
+    private final ConcurrentMap<String, Allocator> allocators = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public DocumentNumberGenerator(DocumentSequenceRepository documentSequenceRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.document-numbers.block-size:20}") int blockSize,
+                                   @Value("${app.document-numbers.templates.customer:CUST-{yyyy}-{seq:4}}") String customerTemplate,
+                                   @Value("${app.document-numbers.templates.quote:Q-{yyyy}-{seq:4}}") String quoteTemplate,
+                                   @Value("${app.document-numbers.templates.booking:B-{yyyy}-{seq:4}}") String bookingTemplate) {
+        this.documentSequenceRepository = documentSequenceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+        templates.put(DocumentType.CUSTOMER, NumberTemplate.parse(customerTemplate));
+        templates.put(DocumentType.QUOTE, NumberTemplate.parse(quoteTemplate));
+        templates.put(DocumentType.BOOKING, NumberTemplate.parse(bookingTemplate));
+    }
+
+    /**
+     * Next formatted number for the tenant and document type
+     */
+    public String next(String tenantId, DocumentType type) {
+        return templates.get(type).format(nextValue(tenantId, type), LocalDate.now());
+    }
+
+    public long nextValue(String tenantId, DocumentType type) {
+        Allocator allocator = allocators.computeIfAbsent(tenantId + '\u0000' + type.name(), key -> new Allocator());
+        while (true) {
+            Block block = allocator.block;
+            if (block != null) {
+                long value = block.cursor.getAndIncrement();
+                if (value < block.limit) {
+                    return value;
+                }
+            }
+            synchronized (allocator) {
+                // Only one thread refills an exhausted block; the others retry on the new one
+                if (allocator.block == block) {
+                    allocator.block = reserve(tenantId, type);
+                }
+            }
+        }
+    }
+
+    private Block reserve(String tenantId, DocumentType type) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    DocumentSequence sequence = documentSequenceRepository
+                            .findForUpdateByTenantIdAndDocumentType(tenantId, type)
+                            .orElseGet(() -> newSequence(tenantId, type));
+                    long start = sequence.getNextValue();
+                    sequence.setNextValue(start + blockSize);
+                    sequence.setUpdatedBy("system");
+                    documentSequenceRepository.saveAndFlush(sequence);
+                    log.debug("Reserved {} numbers {}..{} for tenant {}", type, start, start + blockSize - 1, tenantId);
+                    return new Block(start, start + blockSize);
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the counter row first; lock and use it instead
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Start a tenant's counter after the highest number it already has in the configured
+     * format, so numbers issued before the counter existed are not handed out again even
+     * when documents were deleted since. Runs once per tenant and type.
+     */
+    private DocumentSequence newSequence(String tenantId, DocumentType type) {
+        NumberTemplate template = templates.get(type);
+        long highest;
+        try (Stream<String> numbers = entityManager
+                .createQuery("SELECT e." + type.getNumberField() + " FROM " + type.getEntityName()
+                        + " e WHERE e.tenantId = :tenantId", String.class)
+                .setParameter("tenantId", tenantId)
+                .getResultStream()) {
+            highest = numbers.mapToLong(template::sequenceOf).max().orElse(0L);
+        }
+        DocumentSequence sequence = new DocumentSequence();
+        sequence.setTenantId(tenantId);
+        sequence.setDocumentType(type);
+        sequence.setNextValue(Math.max(0L, highest) + 1);
+        sequence.setCreatedBy("system");
+        return sequence;
+    }
+
+    private static final class Allocator {
+        private volatile Block block;
+    }
+
+    private static final class Block {
+        private final AtomicLong cursor;
+        private final long limit;
+
+        private Block(long start, long limit) {
+            this.cursor = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
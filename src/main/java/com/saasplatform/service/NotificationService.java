@@ -3,11 +3,14 @@ package com.saasplatform.service;
 import com.saasplatform.entity.Notification;
 import com.saasplatform.entity.User;
 import com.saasplatform.repository.NotificationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +22,10 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserService userService;
+    private final TouchUpdateBuffer touchUpdateBuffer;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
      * Create a notification for quote approval
@@ -73,45 +80,76 @@ public class NotificationService {
     }
 
     /**
-     * Get all notifications for a user
+     * Get all notifications for a user, with reads not yet flushed by the touch buffer applied
      */
+    @Transactional(readOnly = true)
     public List<Notification> getUserNotifications(String tenantId, Long userId) {
-        return notificationRepository.findByTenantIdAndRecipientId(tenantId, userId);
+        List<Notification> notifications = notificationRepository.findByTenantIdAndRecipientId(tenantId, userId);
+        for (Notification notification : notifications) {
+            if (notification.getStatus() == Notification.NotificationStatus.UNREAD) {
+                Object readAt = touchUpdateBuffer.pendingValue(
+                        TouchUpdateBuffer.Touch.NOTIFICATION_READ, tenantId, notification.getId());
+                if (readAt != null) {
+                    showAsRead(notification, (LocalDateTime) readAt);
+                }
+            }
+        }
+        return notifications;
     }
 
     /**
-     * Get unread notifications for a user
+     * Get unread notifications for a user, leaving out reads not yet flushed by the touch buffer
      */
+    @Transactional(readOnly = true)
     public List<Notification> getUnreadNotifications(String tenantId, Long userId) {
-        return notificationRepository.findByTenantIdAndRecipientIdAndStatus(tenantId, userId, Notification.NotificationStatus.UNREAD);
+        return notificationRepository.findByTenantIdAndRecipientIdAndStatus(tenantId, userId, Notification.NotificationStatus.UNREAD)
+                .stream()
+                .filter(notification -> !isReadPending(tenantId, notification.getId()))
+                .toList();
     }
 
     /**
-     * Mark notification as read
+     * Mark notification as read. The row is written by the touch buffer's next flush, until
+     * then the read paths here apply it from the buffer.
      */
+    @Transactional(readOnly = true)
     public Notification markAsRead(String tenantId, Long notificationId) {
         Optional<Notification> notificationOpt = notificationRepository.findByTenantIdAndId(tenantId, notificationId);
         
         if (notificationOpt.isPresent()) {
             Notification notification = notificationOpt.get();
-            notification.markAsRead();
-            notification.setUpdatedBy("system");
-            return notificationRepository.save(notification);
+            if (notification.getStatus() == Notification.NotificationStatus.UNREAD) {
+                LocalDateTime readAt = LocalDateTime.now();
+                touchUpdateBuffer.touch(TouchUpdateBuffer.Touch.NOTIFICATION_READ, tenantId, notification.getId(), readAt);
+                showAsRead(notification, readAt);
+            }
+            return notification;
         }
         
         return null;
     }
 
+    // Detached first, so the change shown to the caller can never be flushed by Hibernate
+    private void showAsRead(Notification notification, LocalDateTime readAt) {
+        entityManager.detach(notification);
+        notification.setStatus(Notification.NotificationStatus.READ);
+        notification.setReadAt(readAt);
+    }
+
+    private boolean isReadPending(String tenantId, Long notificationId) {
+        return touchUpdateBuffer.pendingValue(TouchUpdateBuffer.Touch.NOTIFICATION_READ, tenantId, notificationId) != null;
+    }
+
     /**
-     * Mark all notifications as read for a user
+     * Mark all notifications as read for a user, written by the touch buffer's next flush
      */
+    @Transactional(readOnly = true)
     public void markAllAsRead(String tenantId, Long userId) {
-        List<Notification> unreadNotifications = getUnreadNotifications(tenantId, userId);
-        unreadNotifications.forEach(notification -> {
-            notification.markAsRead();
-            notification.setUpdatedBy("system");
-        });
-        notificationRepository.saveAll(unreadNotifications);
+        LocalDateTime now = LocalDateTime.now();
+        for (Long id : notificationRepository.findIdsByTenantIdAndRecipientIdAndStatus(
+                tenantId, userId, Notification.NotificationStatus.UNREAD)) {
+            touchUpdateBuffer.touch(TouchUpdateBuffer.Touch.NOTIFICATION_READ, tenantId, id, now);
+        }
     }
 
     /**
@@ -123,10 +161,14 @@ public class NotificationService {
     }
 
     /**
-     * Get notification count for a user
+     * Get unread notification count for a user, leaving out reads not yet flushed by the touch buffer
      */
+    @Transactional(readOnly = true)
     public long getUnreadNotificationCount(String tenantId, Long userId) {
-        return notificationRepository.countByTenantIdAndRecipientIdAndStatus(tenantId, userId, Notification.NotificationStatus.UNREAD);
+        return notificationRepository.findIdsByTenantIdAndRecipientIdAndStatus(tenantId, userId, Notification.NotificationStatus.UNREAD)
+                .stream()
+                .filter(id -> !isReadPending(tenantId, id))
+                .count();
     }
 }
 
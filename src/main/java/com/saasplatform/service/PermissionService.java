@@ -1,51 +1,43 @@
 package com.saasplatform.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.saasplatform.entity.User;
 import com.saasplatform.security.Permissions;
+import com.saasplatform.security.RoleCatalog;
+import com.saasplatform.security.RoleDefinition;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PermissionService {
 
-    private final ObjectMapper objectMapper;
+    // Roles with their permissions already compiled to masks
+    private final RoleCatalog roleCatalog;
 
     /**
      * Check if a user has a specific permission
      */
     public boolean hasPermission(User user, String permission) {
-        if (user == null || user.getRoles() == null) {
-            return false;
+        long bit = Permissions.bit(permission);
+        if (bit != 0L) {
+            return (getPermissionMask(user) & bit) != 0L;
         }
-
-        return user.getRoles().stream()
-                .anyMatch(role -> {
-                    try {
-                        List<String> rolePermissions = parsePermissions(role.getPermissions());
-                        return rolePermissions.contains(permission);
-                    } catch (Exception e) {
-                        log.error("Error parsing permissions for role: {}", role.getName(), e);
-                        return false;
-                    }
-                });
+        return hasUnknownPermission(user, permission);
     }
 
     /**
      * Check if a user has any of the specified permissions
      */
     public boolean hasAnyPermission(User user, String... permissions) {
+        if ((getPermissionMask(user) & Permissions.mask(permissions)) != 0L) {
+            return true;
+        }
         for (String permission : permissions) {
-            if (hasPermission(user, permission)) {
+            if (Permissions.bit(permission) == 0L && hasUnknownPermission(user, permission)) {
                 return true;
             }
         }
@@ -56,32 +48,58 @@ public class PermissionService {
      * Check if a user has all of the specified permissions
      */
     public boolean hasAllPermissions(User user, String... permissions) {
+        long required = Permissions.mask(permissions);
+        if ((getPermissionMask(user) & required) != required) {
+            return false;
+        }
         for (String permission : permissions) {
-            if (!hasPermission(user, permission)) {
+            if (Permissions.bit(permission) == 0L && !hasUnknownPermission(user, permission)) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * Get the combined permission mask of all the user's roles
+     */
+    public long getPermissionMask(User user) {
+        if (user == null || user.getRoleIds() == null) {
+            return 0L;
+        }
+        long mask = 0L;
+        for (Long roleId : user.getRoleIds()) {
+            RoleDefinition role = roleCatalog.findById(roleId);
+            if (role != null) {
+                mask |= role.mask();
+            }
+        }
+        return mask;
+    }
+
     /**
      * Get all permissions for a user
      */
     public Set<String> getUserPermissions(User user) {
-        if (user == null || user.getRoles() == null) {
+        if (user == null || user.getRoleIds() == null) {
             return Set.of();
         }
 
-        return user.getRoles().stream()
-                .flatMap(role -> {
-                    try {
-                        return parsePermissions(role.getPermissions()).stream();
-                    } catch (Exception e) {
-                        log.error("Error parsing permissions for role: {}", role.getName(), e);
-                        return java.util.stream.Stream.<String>empty();
-                    }
-                })
-                .collect(Collectors.toSet());
+        Set<String> permissions = Permissions.fromMask(getPermissionMask(user));
+        for (Long roleId : user.getRoleIds()) {
+            RoleDefinition role = roleCatalog.findById(roleId);
+            if (role != null) {
+                permissions.addAll(role.otherPermissions());
+            }
+        }
+        return permissions;
+    }
+
+    /**
+     * Get the names of the user's roles
+     */
+    public Set<String> getRoleNames(User user) {
+        return user != null ? roleCatalog.namesOf(user.getRoleIds()) : Set.of();
     }
 
     /**
@@ -147,14 +165,17 @@ public class PermissionService {
         return hasPermission(user, Permissions.VIEW_ALL_COMPANIES);
     }
 
-    /**
-     * Parse permissions JSON string to List
-     */
-    private List<String> parsePermissions(String permissionsJson) throws JsonProcessingException {
-        if (permissionsJson == null || permissionsJson.trim().isEmpty()) {
-            return List.of();
+    private boolean hasUnknownPermission(User user, String permission) {
+        if (user == null || user.getRoleIds() == null) {
+            return false;
         }
-        return objectMapper.readValue(permissionsJson, new TypeReference<List<String>>() {});
+        for (Long roleId : user.getRoleIds()) {
+            RoleDefinition role = roleCatalog.findById(roleId);
+            if (role != null && role.otherPermissions().contains(permission)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -164,8 +185,3 @@ public class PermissionService {
         return Permissions.isValidPermission(permission);
     }
 }
-
-
-
-
-
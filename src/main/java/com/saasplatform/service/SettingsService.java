@@ -1,5 +1,6 @@
 package com.saasplatform.service;
 
+import com.saasplatform.dto.EntityVersion;
 import com.saasplatform.entity.SystemSettings;
 
 import java.util.List;
@@ -13,6 +14,8 @@ public interface SettingsService {
     
     Optional<SystemSettings> getSettingByKey(String tenantId, String key);
     
+    Optional<EntityVersion> getSettingVersion(String tenantId, String key);
+    
     SystemSettings createSetting(String tenantId, SystemSettings setting);
     
     SystemSettings updateSetting(String tenantId, String key, SystemSettings setting);
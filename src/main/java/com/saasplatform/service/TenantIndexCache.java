@@ -0,0 +1,279 @@
+package com.saasplatform.service;
+
+import com.saasplatform.tenant.TenantChangeCounters;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Per-tenant in-memory indexes over one table, built lazily on a tenant's first lookup and
+ * kept current from committed writes on this node. Writes made on other nodes are caught by
+ * the tenant's change counter for the table: checked at most once per staleness interval, and
+ * a tenant whose counter moved since its build is rebuilt before it is served again. All
+ * tenants share one memory budget: least recently used tenants are evicted first, and a tenant
+ * too large for the budget on its own is served by the database.
+ *
+ * @param <I> one tenant's index
+ * @param <E> what is indexed for one row
+ */
+@Slf4j
+public abstract class TenantIndexCache<I extends TenantIndexCache.Index<E>, E> {
+
+    /**
+     * One tenant's index; calls are serialized by the cache, reads may run concurrently
+     */
+    public interface Index<E> {
+
+        void put(Long id, E entry);
+
+        void remove(Long id);
+
+        int size();
+
+        long estimatedBytes();
+    }
+
+    private final String name;
+    private final String table;
+    private final TenantChangeCounters tenantChangeCounters;
+    private final long maxBytes;
+    private final long stalenessCheckMillis;
+
+    // Access-ordered, so iteration starts at the least recently used tenant; guarded by itself
+    private final Map<String, Slot<I>> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> oversizedTenants = new HashSet<>();
+
+    protected TenantIndexCache(String name,
+                               String table,
+                               TenantChangeCounters tenantChangeCounters,
+                               long maxMemoryMb,
+                               long stalenessCheckMillis) {
+        this.name = name;
+        this.table = table;
+        this.tenantChangeCounters = tenantChangeCounters;
+        this.maxBytes = maxMemoryMb * 1024 * 1024;
+        this.stalenessCheckMillis = stalenessCheckMillis;
+    }
+
+    protected abstract I newIndex();
+
+    /**
+     * The tenant's rows to index by id, read from the current tenant context's placement
+     */
+    protected abstract Map<Long, E> loadEntries(String tenantId);
+
+    /**
+     * Run the query against the tenant's index, or empty if the index cannot answer right now
+     * (still loading, or the tenant exceeds the budget)
+     */
+    protected <R> Optional<R> query(String tenantId, Function<I, R> query) {
+        Slot<I> slot = acquire(tenantId);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        slot.lock.readLock().lock();
+        try {
+            return slot.ready ? Optional.of(query.apply(slot.index)) : Optional.empty();
+        } finally {
+            slot.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index the row once the surrounding transaction commits
+     */
+    protected void putAfterCommit(String tenantId, Long id, E entry) {
+        afterCommit(() -> apply(tenantId, id, entry));
+    }
+
+    /**
+     * Drop the row once the surrounding transaction commits
+     */
+    protected void removeAfterCommit(String tenantId, Long id) {
+        afterCommit(() -> apply(tenantId, id, null));
+    }
+
+    /**
+     * Discard a tenant's index after writes that bypassed this class, e.g. bulk imports;
+     * it is rebuilt on the next lookup
+     */
+    public void invalidate(String tenantId) {
+        synchronized (indexes) {
+            indexes.remove(tenantId);
+            oversizedTenants.remove(tenantId);
+        }
+    }
+
+    private Slot<I> acquire(String tenantId) {
+        Slot<I> slot;
+        synchronized (indexes) {
+            if (oversizedTenants.contains(tenantId)) {
+                return null;
+            }
+            slot = indexes.get(tenantId);
+        }
+        if (slot != null && !isStale(tenantId, slot)) {
+            return slot;
+        }
+        Slot<I> fresh = new Slot<>(newIndex());
+        synchronized (indexes) {
+            Slot<I> current = indexes.get(tenantId);
+            if (current != slot) {
+                // Another lookup got here first and is building it
+                return current;
+            }
+            indexes.put(tenantId, fresh);
+        }
+        load(tenantId, fresh);
+        return fresh;
+    }
+
+    /**
+     * Whether the table changed since the index was built, on this node or another. Own writes
+     * are already applied but also move the counter, so a busy tenant is rebuilt at most once
+     * per staleness interval.
+     */
+    private boolean isStale(String tenantId, Slot<I> slot) {
+        long now = System.currentTimeMillis();
+        if (!slot.ready || now - slot.checkedAt < stalenessCheckMillis) {
+            return false;
+        }
+        // Concurrent lookups may each check once; only one of them replaces the index
+        slot.checkedAt = now;
+        try {
+            return tenantChangeCounters.counter(tenantId, table) != slot.builtAtCounter;
+        } catch (Exception e) {
+            log.warn("Failed to read {} change counter for tenant {}", table, tenantId, e);
+            return false;
+        }
+    }
+
+    private void load(String tenantId, Slot<I> slot) {
+        long start = System.currentTimeMillis();
+        try {
+            // Read before the rows, so a change racing the load makes the index look stale, never fresh
+            slot.builtAtCounter = tenantChangeCounters.counter(tenantId, table);
+            slot.checkedAt = System.currentTimeMillis();
+            // Registered before reading, so writes committed after the read are replayed by apply()
+            Map<Long, E> entries = loadEntries(tenantId);
+            slot.lock.writeLock().lock();
+            try {
+                for (Map.Entry<Long, E> entry : entries.entrySet()) {
+                    if (!slot.touchedWhileLoading.contains(entry.getKey())) {
+                        slot.index.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                slot.touchedWhileLoading = null;
+                slot.ready = true;
+            } finally {
+                slot.lock.writeLock().unlock();
+            }
+            log.info("Built {} for tenant {} with {} entries in {} ms",
+                    name, tenantId, slot.index.size(), System.currentTimeMillis() - start);
+            enforceBudget(tenantId, slot);
+        } catch (Exception e) {
+            log.error("Failed to build {} for tenant {}", name, tenantId, e);
+            synchronized (indexes) {
+                indexes.remove(tenantId, slot);
+            }
+        }
+    }
+
+    private void enforceBudget(String tenantId, Slot<I> loaded) {
+        long loadedBytes = loaded.estimatedBytes();
+        synchronized (indexes) {
+            if (loadedBytes > maxBytes) {
+                indexes.remove(tenantId, loaded);
+                oversizedTenants.add(tenantId);
+                log.warn("Tenant {} needs ~{} bytes for its {}, over the budget; using database search",
+                        tenantId, loadedBytes, name);
+                return;
+            }
+            long total = 0;
+            for (Slot<I> slot : indexes.values()) {
+                total += slot.estimatedBytes();
+            }
+            Iterator<Map.Entry<String, Slot<I>>> lru = indexes.entrySet().iterator();
+            while (total > maxBytes && lru.hasNext()) {
+                Map.Entry<String, Slot<I>> entry = lru.next();
+                if (entry.getValue() == loaded) {
+                    continue;
+                }
+                total -= entry.getValue().estimatedBytes();
+                lru.remove();
+                log.debug("Evicted {} for tenant {}", name, entry.getKey());
+            }
+        }
+    }
+
+    private void apply(String tenantId, Long id, E entry) {
+        if (id == null) {
+            return;
+        }
+        Slot<I> slot;
+        synchronized (indexes) {
+            slot = indexes.get(tenantId);
+        }
+        if (slot == null) {
+            return;
+        }
+        slot.lock.writeLock().lock();
+        try {
+            if (slot.touchedWhileLoading != null) {
+                slot.touchedWhileLoading.add(id);
+            }
+            if (entry != null) {
+                slot.index.put(id, entry);
+            } else {
+                slot.index.remove(id);
+            }
+        } finally {
+            slot.lock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Slot<I extends Index<?>> {
+        private final I index;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // Ids written while the initial load runs; their indexed state is newer than the load's read
+        private Set<Long> touchedWhileLoading = new HashSet<>();
+        private volatile boolean ready;
+        private volatile long builtAtCounter;
+        private volatile long checkedAt;
+
+        private Slot(I index) {
+            this.index = index;
+        }
+
+        private long estimatedBytes() {
+            lock.readLock().lock();
+            try {
+                return index.estimatedBytes();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.saasplatform.service;
+
+import com.saasplatform.tenant.TenantContext;
+import com.saasplatform.tenant.TenantDescriptor;
+import com.saasplatform.tenant.TenantRegistry;
+import com.saasplatform.tenant.TenantWriteFence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for frequent, low-value column updates such as last login or read
+ * receipts. Touches are coalesced in memory per row, so a row touched many times between
+ * flushes is written once, and flushed periodically as one JDBC batch per kind and tenant.
+ * The updates are set-based and leave version columns and change counters alone, so they
+ * never load the entity, conflict with optimistic locking or invalidate ETags; touched columns
+ * are not covered by ETags. Pending touches are flushed on graceful shutdown; a crash loses at
+ * most one flush interval of them.
+ */
+@Component
+@Slf4j
+public class TouchUpdateBuffer implements DisposableBean {
+
+    /**
+     * Kinds of touches, each a single guarded UPDATE taking (value, id, tenant id). Guards make
+     * the writes idempotent and order-independent, so a retried or late flush cannot move a
+     * column backwards.
+     */
+    public enum Touch {
+        USER_LAST_LOGIN(false, true,
+                "UPDATE users SET last_login = ? WHERE id = ? AND tenant_id = ? " +
+                        "AND (last_login IS NULL OR last_login < ?)"),
+        NOTIFICATION_READ(false, false,
+                "UPDATE notifications SET status = 'READ', read_at = ? WHERE id = ? AND tenant_id = ? " +
+                        "AND status = 'UNREAD'"),
+        CUSTOMER_LAST_CONTACT(true, true,
+                "UPDATE customers SET last_contact_date = ? WHERE id = ? AND tenant_id = ? " +
+                        "AND (last_contact_date IS NULL OR last_contact_date < ?)");
+
+        // Lives with the tenant's other business data, which may be on a dedicated placement
+        private final boolean placed;
+        // Keep the latest value when coalescing, otherwise the earliest
+        private final boolean latest;
+        private final String sql;
+
+        Touch(boolean placed, boolean latest, String sql) {
+            this.placed = placed;
+            this.latest = latest;
+            this.sql = sql;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object merge(Object current, Object touched) {
+            int compare = ((Comparable) touched).compareTo(current);
+            return latest == compare > 0 ? touched : current;
+        }
+
+        private void bind(PreparedStatement ps, Object value, Long id, String tenantId) throws SQLException {
+            Object parameter = value instanceof LocalDateTime dateTime ? Timestamp.valueOf(dateTime)
+                    : value instanceof LocalDate date ? Date.valueOf(date)
+                    : value;
+            ps.setObject(1, parameter);
+            ps.setLong(2, id);
+            ps.setString(3, tenantId);
+            if (latest) {
+                ps.setObject(4, parameter);
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TenantRegistry tenantRegistry;
+    private final TenantWriteFence writeFence;
+    private final int maxPending;
+    private final ConcurrentMap<Key, Object> pending = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+    private final Counter writtenTouches;
+    private final Counter deferredTouches;
+    private final Counter failedFlushes;
+    private final Counter overflows;
+
+    public TouchUpdateBuffer(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             TenantRegistry tenantRegistry,
+                             TenantWriteFence writeFence,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.touch-buffer.max-pending:100000}") int maxPending) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Never joins the caller's transaction, so an overflow write-through commits on its own
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tenantRegistry = tenantRegistry;
+        this.writeFence = writeFence;
+        this.maxPending = maxPending;
+        meterRegistry.gaugeMapSize("touch.buffer.pending", Tags.empty(), pending);
+        this.flushTimer = meterRegistry.timer("touch.buffer.flush");
+        this.writtenTouches = meterRegistry.counter("touch.buffer.touches", "outcome", "written");
+        this.deferredTouches = meterRegistry.counter("touch.buffer.touches", "outcome", "deferred");
+        this.failedFlushes = meterRegistry.counter("touch.buffer.flush.failures");
+        this.overflows = meterRegistry.counter("touch.buffer.overflows");
+    }
+
+    /**
+     * Record a touch of the row, written by a later flush. When the buffer is full the touch is
+     * written immediately instead, so memory stays bounded under a flush backlog.
+     */
+    public void touch(Touch touch, String tenantId, Long id, Object value) {
+        if (tenantId == null || id == null || value == null) {
+            return;
+        }
+        Key key = new Key(touch, tenantId, id);
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            overflows.increment();
+            Map<Long, Object> values = new HashMap<>();
+            values.put(id, value);
+            if (write(touch, tenantId, values)) {
+                return;
+            }
+            // Not writable right now; buffering past the limit beats losing it
+        }
+        pending.merge(key, value, touch::merge);
+    }
+
+    /**
+     * The touched value not yet written for the row, or null. Lets read paths show a touch
+     * before the flush that writes it; touches stay visible here until they are committed.
+     */
+    public Object pendingValue(Touch touch, String tenantId, Long id) {
+        return pending.get(new Key(touch, tenantId, id));
+    }
+
+    /**
+     * Write all pending touches; touches that cannot be written now (a tenant being moved
+     * between placements, a database error) stay buffered for the next flush
+     */
+    @Scheduled(fixedDelayString = "${app.touch-buffer.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<Group, Map<Long, Object>> groups = new HashMap<>();
+        for (Map.Entry<Key, Object> entry : pending.entrySet()) {
+            Key key = entry.getKey();
+            groups.computeIfAbsent(new Group(key.touch(), key.tenantId()), group -> new HashMap<>())
+                    .put(key.id(), entry.getValue());
+        }
+        for (Map.Entry<Group, Map<Long, Object>> entry : groups.entrySet()) {
+            Group group = entry.getKey();
+            if (write(group.touch(), group.tenantId(), entry.getValue())) {
+                // Only what was written; a touch merged in meanwhile stays for the next flush
+                entry.getValue().forEach((id, value) ->
+                        pending.remove(new Key(group.touch(), group.tenantId(), id), value));
+            }
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return false if the rows were not written and should be retried
+     */
+    private boolean write(Touch touch, String tenantId, Map<Long, Object> values) {
+        if (touch.placed && !writeFence.tryEnter(tenantId)) {
+            deferredTouches.increment(values.size());
+            return false;
+        }
+        TenantDescriptor previous = TenantContext.getTenant();
+        try {
+            // The routing data source picks the tenant's placement from the context
+            TenantContext.setTenant(touch.placed ? tenantRegistry.findByTenantId(tenantId) : null);
+            List<Map.Entry<Long, Object>> rows = new ArrayList<>(values.entrySet());
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(touch.sql, rows, rows.size(),
+                    (ps, row) -> touch.bind(ps, row.getValue(), row.getKey(), tenantId)));
+            writtenTouches.increment(rows.size());
+            return true;
+        } catch (Exception e) {
+            failedFlushes.increment();
+            log.warn("Failed to write {} {} touches for tenant {}", values.size(), touch, tenantId, e);
+            return false;
+        } finally {
+            TenantContext.setTenant(previous);
+            if (touch.placed) {
+                writeFence.exit(tenantId);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // Runs before the data source is closed, since this bean depends on it
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("Dropping {} touches that could not be written at shutdown", pending.size());
+        }
+    }
+
+    private record Key(Touch touch, String tenantId, Long id) {
+    }
+
+    private record Group(Touch touch, String tenantId) {
+    }
+}
@@ -0,0 +1,309 @@
+package com.saasplatform.service;
+
+import com.saasplatform.dto.UserProvisioningReport;
+import com.saasplatform.dto.UserProvisioningRequest.NewUser;
+import com.saasplatform.entity.Company;
+import com.saasplatform.entity.Role;
+import com.saasplatform.entity.User;
+import com.saasplatform.repository.CompanyRepository;
+import com.saasplatform.repository.UserRepository;
+import com.saasplatform.security.RoleCatalog;
+import com.saasplatform.security.RoleDefinition;
+import com.saasplatform.tenant.TenantChangeCounters;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Creates many accounts of one tenant in a single call. Rows are validated up front, emails
+ * are checked with one IN query and the plan's user limit with one count; passwords are then
+ * hashed in parallel on a small dedicated ForkJoin pool, outside any transaction, and users
+ * and their role links go out as two JDBC batches in one transaction, which recounts the
+ * users under a lock on the company row so concurrent calls cannot overrun the limit.
+ */
+@Service
+@Slf4j
+public class UserProvisioningService implements DisposableBean {
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (tenant_id, email, password, first_name, " +
+            "last_name, phone, status, email_verified, two_factor_enabled, company_id, created_at, created_by, " +
+            "updated_by, version) VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, FALSE, ?, ?, ?, ?, 0)";
+    private static final String INSERT_USER_ROLE_SQL = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+
+    private final UserRepository userRepository;
+    private final RoleCatalog roleCatalog;
+    private final CompanyRepository companyRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UserTypeaheadIndex userTypeaheadIndex;
+    private final TenantChangeCounters tenantChangeCounters;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxUsers;
+    private final ForkJoinPool hashingPool;
+
+    public UserProvisioningService(UserRepository userRepository,
+                                   RoleCatalog roleCatalog,
+                                   CompanyRepository companyRepository,
+                                   PasswordEncoder passwordEncoder,
+                                   UserTypeaheadIndex userTypeaheadIndex,
+                                   TenantChangeCounters tenantChangeCounters,
+                                   DataSource dataSource,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.user-provisioning.max-users:1000}") int maxUsers,
+                                   @Value("${app.user-provisioning.hashing-parallelism:4}") int hashingParallelism) {
+        this.userRepository = userRepository;
+        this.roleCatalog = roleCatalog;
+        this.companyRepository = companyRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userTypeaheadIndex = userTypeaheadIndex;
+        this.tenantChangeCounters = tenantChangeCounters;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxUsers = maxUsers;
+        this.hashingPool = new ForkJoinPool(Math.max(1, hashingParallelism));
+    }
+
+    /**
+     * Create the valid users and report every row's outcome; rows are rejected individually
+     * for invalid fields, duplicate or registered emails, unknown roles or a full plan
+     *
+     * @throws IllegalArgumentException if the request is empty, too large or the tenant is unknown
+     */
+    public UserProvisioningReport provision(String tenantId, List<NewUser> users) {
+        if (users == null || users.isEmpty()) {
+            throw new IllegalArgumentException("No users to provision");
+        }
+        if (users.size() > maxUsers) {
+            throw new IllegalArgumentException("At most " + maxUsers + " users can be provisioned at once");
+        }
+        Company company = companyRepository.findByTenantId(tenantId);
+        if (company == null) {
+            throw new IllegalArgumentException("Unknown tenant: " + tenantId);
+        }
+
+        Map<String, Long> roleIds = new HashMap<>();
+        for (RoleDefinition role : roleCatalog.getAll()) {
+            roleIds.put(role.name(), role.id());
+        }
+
+        List<UserProvisioningReport.Result> results = new ArrayList<>(users.size());
+        List<Candidate> candidates = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        for (int i = 0; i < users.size(); i++) {
+            NewUser user = users.get(i);
+            String email = user != null && user.getEmail() != null ? user.getEmail().trim() : null;
+            UserProvisioningReport.Result result = new UserProvisioningReport.Result(i, email, null, null);
+            results.add(result);
+            String error = validate(user, email, roleIds);
+            if (error == null && !seenEmails.add(email.toLowerCase(Locale.ROOT))) {
+                error = "Duplicate email in request";
+            }
+            if (error != null) {
+                result.setError(error);
+            } else {
+                candidates.add(new Candidate(user, email, roleIdsOf(user, roleIds), result));
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            Set<String> registered = new HashSet<>(userRepository.findExistingEmailsIgnoreCase(
+                    candidates.stream().map(candidate -> candidate.email().toLowerCase(Locale.ROOT)).toList()));
+            candidates.removeIf(candidate -> {
+                if (registered.contains(candidate.email().toLowerCase(Locale.ROOT))) {
+                    candidate.result().setError("Email already registered");
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        // Early, unlocked check so rows that cannot fit are not hashed; insert() checks again under a lock
+        candidates = withinSeats(tenantId, company.getMaxUsers(), candidates);
+
+        if (!candidates.isEmpty()) {
+            String[] hashes = hashPasswords(candidates);
+            insert(tenantId, company, candidates, hashes);
+        }
+
+        int created = (int) results.stream().filter(result -> result.getUserId() != null).count();
+        log.info("Provisioned {} of {} users for tenant {}", created, users.size(), tenantId);
+        return new UserProvisioningReport(users.size(), created, users.size() - created, results);
+    }
+
+    /**
+     * The candidates that fit in the plan's free seats; the rest are marked as over the limit
+     */
+    private List<Candidate> withinSeats(String tenantId, Integer maxUsers, List<Candidate> candidates) {
+        if (maxUsers == null || candidates.isEmpty()) {
+            return candidates;
+        }
+        long seats = Math.max(0L, maxUsers - userRepository.countByTenantId(tenantId));
+        if (seats >= candidates.size()) {
+            return candidates;
+        }
+        for (int i = (int) seats; i < candidates.size(); i++) {
+            candidates.get(i).result().setError("User limit of " + maxUsers + " reached");
+        }
+        return new ArrayList<>(candidates.subList(0, (int) seats));
+    }
+
+    private String validate(NewUser user, String email, Map<String, Long> roleIds) {
+        if (user == null) {
+            return "Missing user";
+        }
+        if (email == null || email.isEmpty() || !email.contains("@")) {
+            return "Invalid email";
+        }
+        if (isBlank(user.getFirstName()) || isBlank(user.getLastName())) {
+            return "First and last name are required";
+        }
+        if (user.getRoles() != null) {
+            for (String role : user.getRoles()) {
+                if (Role.SUPER_ADMIN.equals(role)) {
+                    return "Role cannot be assigned: " + role;
+                }
+                if (!roleIds.containsKey(role)) {
+                    return "Unknown role: " + role;
+                }
+            }
+        }
+        if (!roleIds.containsKey(Role.STAFF) && (user.getRoles() == null || user.getRoles().isEmpty())) {
+            return "Default role " + Role.STAFF + " does not exist";
+        }
+        return null;
+    }
+
+    private static List<Long> roleIdsOf(NewUser user, Map<String, Long> roleIds) {
+        List<String> names = user.getRoles() == null || user.getRoles().isEmpty() ? List.of(Role.STAFF) : user.getRoles();
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String name : names) {
+            ids.add(roleIds.get(name));
+        }
+        return List.copyOf(ids);
+    }
+
+    /**
+     * BCrypt is deliberately slow, so hash on the dedicated pool's workers in parallel
+     */
+    private String[] hashPasswords(List<Candidate> candidates) {
+        String[] hashes = new String[candidates.size()];
+        try {
+            hashingPool.submit(() -> IntStream.range(0, candidates.size()).parallel().forEach(i -> {
+                String password = candidates.get(i).user().getPassword();
+                hashes[i] = isBlank(password) ? null : passwordEncoder.encode(password);
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+        return hashes;
+    }
+
+    private void insert(String tenantId, Company company, List<Candidate> allowed, String[] hashes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Long companyId = company.getId();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (company.getMaxUsers() != null) {
+                // Concurrent provisioning calls for the tenant queue here, so the count below
+                // cannot be outdated by their inserts
+                companyRepository.findForUpdateById(companyId);
+            }
+            List<Candidate> candidates = withinSeats(tenantId, company.getMaxUsers(), allowed);
+            if (candidates.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Candidate candidate = candidates.get(i);
+                    ps.setString(1, tenantId);
+                    ps.setString(2, candidate.email());
+                    ps.setString(3, hashes[i]);
+                    ps.setString(4, candidate.user().getFirstName().trim());
+                    ps.setString(5, candidate.user().getLastName().trim());
+                    ps.setString(6, candidate.user().getPhone());
+                    ps.setString(7, User.UserStatus.ACTIVE.name());
+                    ps.setLong(8, companyId);
+                    ps.setTimestamp(9, now);
+                    ps.setString(10, "system");
+                    ps.setString(11, "system");
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return candidates.size();
+                }
+            });
+
+            // Identity columns do not come back from a batch, so read the new ids by email once
+            Map<String, Long> ids = new HashMap<>();
+            for (Object[] row : userRepository.findIdsByTenantIdAndEmails(tenantId,
+                    candidates.stream().map(Candidate::email).toList())) {
+                ids.merge((String) row[1], (Long) row[0], Math::max);
+            }
+
+            List<long[]> links = new ArrayList<>();
+            for (Candidate candidate : candidates) {
+                Long userId = ids.get(candidate.email());
+                candidate.result().setUserId(userId);
+                for (Long roleId : candidate.roleIds()) {
+                    links.add(new long[]{userId, roleId});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, links, links.size(), (ps, link) -> {
+                ps.setLong(1, link[0]);
+                ps.setLong(2, link[1]);
+            });
+
+            // JDBC inserts bypass entity listeners and the user service
+            tenantChangeCounters.changed(tenantId, "users");
+            for (Candidate candidate : candidates) {
+                User user = new User();
+                user.setId(candidate.result().getUserId());
+                user.setTenantId(tenantId);
+                user.setEmail(candidate.email());
+                user.setFirstName(candidate.user().getFirstName().trim());
+                user.setLastName(candidate.user().getLastName().trim());
+                user.setStatus(User.UserStatus.ACTIVE);
+                userTypeaheadIndex.indexUser(user);
+            }
+        });
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdown();
+    }
+
+    private record Candidate(NewUser user, String email, List<Long> roleIds, UserProvisioningReport.Result result) {
+    }
+}
@@ -1,5 +1,11 @@
 package com.saasplatform.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.saasplatform.dto.CursorPage;
+import com.saasplatform.dto.EntityVersion;
+import com.saasplatform.dto.UserDirectoryEntry;
+import com.saasplatform.dto.UserDirectoryFilter;
+import com.saasplatform.dto.UserSuggestion;
 import com.saasplatform.entity.User;
 
 import java.util.List;
@@ -16,22 +22,51 @@ public interface UserService {
     
     Optional<User> getUserById(String tenantId, Long id);
     
+    Optional<EntityVersion> getUserVersion(String tenantId, Long id);
+    
     User createUser(String tenantId, User user);
     
     User updateUser(String tenantId, Long id, User userDetails);
     
+    /**
+     * Apply a JSON merge patch to the user's profile fields; password and roles are not patchable
+     *
+     * @param ifMatch If-Match header compared against the loaded row's version in the same
+     *        transaction, or null for an unconditional patch
+     * @throws IllegalArgumentException for fields that cannot be patched or invalid values
+     * @throws org.springframework.dao.EmptyResultDataAccessException if the user does not exist
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the user does not
+     *         match If-Match or was changed concurrently
+     */
+    User patchUser(String tenantId, Long id, JsonNode patch, String ifMatch);
+    
     void deleteUser(String tenantId, Long id);
     
     List<User> getUsersByRole(String tenantId, String role);
     
     List<User> searchUsers(String tenantId, String searchTerm);
     
+    /**
+     * Up to limit active users whose first name, last name, full name or email starts with the prefix
+     */
+    List<UserSuggestion> typeahead(String tenantId, String prefix, int limit);
+    
     void changePassword(String tenantId, Long userId, String oldPassword, String newPassword);
     
     void resetPassword(String tenantId, Long userId, String newPassword);
     
+    void updatePasswordHash(String email, String encodedPassword);
+    
     void updateUserStatus(String tenantId, Long userId, User.UserStatus status);
     
     long getTotalUserCount();
+    
+    /**
+     * Keyset-paginated directory of users across all tenants, ordered by tenant and id
+     *
+     * @throws IllegalArgumentException for a malformed cursor or filter value
+     */
+    CursorPage<UserDirectoryEntry> getUserDirectory(UserDirectoryFilter filter, String cursor, int limit,
+                                                    boolean includeTotal);
 }
 
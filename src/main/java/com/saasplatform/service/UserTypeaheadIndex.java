@@ -0,0 +1,138 @@
+package com.saasplatform.service;
+
+import com.saasplatform.dto.UserSuggestion;
+import com.saasplatform.entity.User;
+import com.saasplatform.repository.UserRepository;
+import com.saasplatform.tenant.TenantChangeCounters;
+import com.saasplatform.util.RadixTrie;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-tenant prefix index of active users by first name, last name, full name and email,
+ * backing people-picker autocomplete; cached and kept current as described on
+ * {@link TenantIndexCache}
+ */
+@Component
+public class UserTypeaheadIndex extends TenantIndexCache<UserTypeaheadIndex.UserIndex, UserTypeaheadIndex.IndexedUser> {
+
+    private final UserRepository userRepository;
+
+    public UserTypeaheadIndex(UserRepository userRepository,
+                              TenantChangeCounters tenantChangeCounters,
+                              @Value("${app.search.user-typeahead.max-memory-mb:64}") long maxMemoryMb,
+                              @Value("${app.search.user-typeahead.staleness-check-ms:30000}") long stalenessCheckMillis) {
+        super("user typeahead index", "users", tenantChangeCounters, maxMemoryMb, stalenessCheckMillis);
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Up to limit users with a name or email starting with the prefix, shortest match first,
+     * or empty if the index cannot answer right now (still loading, or over the budget)
+     */
+    public Optional<List<UserSuggestion>> search(String tenantId, String prefix, int limit) {
+        return query(tenantId, index -> {
+            List<UserSuggestion> suggestions = new ArrayList<>();
+            for (Long id : index.trie.search(prefix, limit)) {
+                UserSuggestion suggestion = index.suggestions.get(id);
+                if (suggestion != null) {
+                    suggestions.add(suggestion);
+                }
+            }
+            return suggestions;
+        });
+    }
+
+    /**
+     * Index a created or updated user once the surrounding transaction commits; users that
+     * are not active are dropped from suggestions
+     */
+    public void indexUser(User user) {
+        if (user.getStatus() == User.UserStatus.ACTIVE) {
+            putAfterCommit(user.getTenantId(), user.getId(),
+                    new IndexedUser(user.getFirstName(), user.getLastName(), user.getEmail()));
+        } else {
+            removeAfterCommit(user.getTenantId(), user.getId());
+        }
+    }
+
+    /**
+     * Drop a deleted user once the surrounding transaction commits
+     */
+    public void removeUser(String tenantId, Long id) {
+        removeAfterCommit(tenantId, id);
+    }
+
+    @Override
+    protected UserIndex newIndex() {
+        return new UserIndex();
+    }
+
+    @Override
+    protected Map<Long, IndexedUser> loadEntries(String tenantId) {
+        Map<Long, IndexedUser> entries = new LinkedHashMap<>();
+        for (Object[] row : userRepository.findTypeaheadFieldsByTenantIdAndStatus(tenantId, User.UserStatus.ACTIVE)) {
+            entries.put((Long) row[0], new IndexedUser((String) row[1], (String) row[2], (String) row[3]));
+        }
+        return entries;
+    }
+
+    /**
+     * Name shown for a user: first and last name, or the email when both are blank
+     */
+    public static String displayName(String firstName, String lastName, String email) {
+        String name = ((firstName != null ? firstName.trim() : "") + " " + (lastName != null ? lastName.trim() : "")).trim();
+        return name.isEmpty() ? email : name;
+    }
+
+    record IndexedUser(String firstName, String lastName, String email) {
+    }
+
+    static final class UserIndex implements TenantIndexCache.Index<IndexedUser> {
+        private static final int SUGGESTION_OVERHEAD_BYTES = 96;
+
+        private final RadixTrie trie = new RadixTrie();
+        private final Map<Long, UserSuggestion> suggestions = new HashMap<>();
+        private long suggestionChars;
+
+        @Override
+        public void put(Long id, IndexedUser user) {
+            remove(id);
+            UserSuggestion suggestion = new UserSuggestion(id, displayName(user.firstName(), user.lastName(), user.email()),
+                    user.email());
+            trie.put(id, user.firstName(), user.lastName(), suggestion.getDisplayName(), user.email());
+            suggestions.put(id, suggestion);
+            suggestionChars += length(suggestion.getDisplayName()) + length(suggestion.getEmail());
+        }
+
+        @Override
+        public void remove(Long id) {
+            trie.remove(id);
+            UserSuggestion existing = suggestions.remove(id);
+            if (existing != null) {
+                suggestionChars -= length(existing.getDisplayName()) + length(existing.getEmail());
+            }
+        }
+
+        @Override
+        public int size() {
+            return trie.size();
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return trie.estimatedBytes() + (long) suggestions.size() * SUGGESTION_OVERHEAD_BYTES + suggestionChars * 2;
+        }
+
+        private static int length(String value) {
+            return value != null ? value.length() : 0;
+        }
+    }
+}
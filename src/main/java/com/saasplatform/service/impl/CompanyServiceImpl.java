@@ -3,6 +3,7 @@ package com.saasplatform.service.impl;
 import com.saasplatform.entity.Company;
 import com.saasplatform.repository.CompanyRepository;
 import com.saasplatform.service.CompanyService;
+import com.saasplatform.tenant.TenantRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,7 @@ import java.util.Optional;
 public class CompanyServiceImpl implements CompanyService {
 
     private final CompanyRepository companyRepository;
+    private final TenantRegistry tenantRegistry;
 
     @Override
     public List<Company> getAllCompanies() {
@@ -41,7 +43,9 @@ public class CompanyServiceImpl implements CompanyService {
             company.setStatus(Company.CompanyStatus.ACTIVE);
         }
         
-        return companyRepository.save(company);
+        Company savedCompany = companyRepository.save(company);
+        tenantRegistry.register(savedCompany);
+        return savedCompany;
     }
 
     @Override
@@ -64,14 +68,19 @@ public class CompanyServiceImpl implements CompanyService {
             company.setUpdatedAt(LocalDateTime.now());
             company.setUpdatedBy("system");
             
-            return companyRepository.save(company);
+            Company savedCompany = companyRepository.save(company);
+            tenantRegistry.register(savedCompany);
+            return savedCompany;
         }
         return null;
     }
 
     @Override
     public void deleteCompany(Long id) {
-        companyRepository.deleteById(id);
+        companyRepository.findById(id).ifPresent(company -> {
+            companyRepository.delete(company);
+            tenantRegistry.unregister(company.getTenantId());
+        });
     }
 
     @Override
@@ -1,16 +1,45 @@
 package com.saasplatform.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasplatform.dto.CursorPage;
+import com.saasplatform.dto.CustomerFilter;
+import com.saasplatform.dto.EntityVersion;
 import com.saasplatform.entity.Customer;
+import com.saasplatform.entity.DocumentSequence.DocumentType;
 import com.saasplatform.repository.CustomerRepository;
+import com.saasplatform.repository.CustomerRepositoryCustom.SortField;
+import com.saasplatform.service.CustomerExistenceFilter;
+import com.saasplatform.service.CustomerSearchIndex;
 import com.saasplatform.service.CustomerService;
+import com.saasplatform.service.DocumentNumberGenerator;
+import com.saasplatform.service.TouchUpdateBuffer;
+import com.saasplatform.tenant.TenantChangeCounters;
+import com.saasplatform.util.EntityTags;
+import com.saasplatform.util.KeysetCursor;
+import com.saasplatform.util.MergePatch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.beans.PropertyDescriptor;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -18,22 +47,114 @@ import java.util.Optional;
 @Transactional
 public class CustomerServiceImpl implements CustomerService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    // Larger search hits are matched in SQL rather than passed as an IN list
+    private static final int MAX_SEARCH_IDS = 1000;
+    private static final int MAX_BATCH_PATCH_IDS = 1000;
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "companyName", "contactPerson", "email", "phone", "website", "address", "city", "state",
+            "country", "zipCode", "status", "customerType", "industry", "annualRevenue", "employeeCount",
+            "source", "notes", "lastContactDate", "nextFollowUpDate", "creditLimit", "paymentTerms");
+    // Fields that are not part of the search index or existence filter, so a set-based
+    // UPDATE needs no per-row follow-up
+    private static final Set<String> BATCH_PATCHABLE_FIELDS = Set.of(
+            "status", "customerType", "industry", "source", "paymentTerms", "creditLimit",
+            "lastContactDate", "nextFollowUpDate");
+    private static final Set<String> REQUIRED_FIELDS = Set.of("companyName", "email", "status", "customerType");
+
     private final CustomerRepository customerRepository;
+    private final CustomerSearchIndex customerSearchIndex;
+    private final CustomerExistenceFilter customerExistenceFilter;
+    private final DocumentNumberGenerator documentNumberGenerator;
+    private final TenantChangeCounters tenantChangeCounters;
+    private final TouchUpdateBuffer touchUpdateBuffer;
+    private final ObjectMapper objectMapper;
 
     @Override
     public List<Customer> getAllCustomers(String tenantId) {
-        return customerRepository.findByTenantId(tenantId);
+        return customerRepository.findAll();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Customer> getCustomerPage(String tenantId, CustomerFilter filter, String sort, String direction,
+                                                String cursor, int limit, boolean includeTotal) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        SortField sortField = SortField.from(sort);
+        boolean ascending = !"desc".equalsIgnoreCase(direction);
+        String sortKey = sortField.key(ascending);
+
+        KeysetCursor position = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+        if (position != null && !sortKey.equals(position.sort())) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        boolean backward = position != null && position.backward();
+        Collection<Long> searchIds = searchIds(tenantId, filter);
+
+        // Fetch one extra row to learn whether another page exists in the scan direction
+        List<Customer> rows = customerRepository.findPageAfter(tenantId, filter, searchIds, sortField, ascending != backward,
+                position != null ? sortField.parse(position.value()) : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<Customer> items = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        if (backward) {
+            Collections.reverse(items);
+        }
+
+        boolean hasNext = backward || hasMore;
+        boolean hasPrev = backward ? hasMore : position != null;
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!items.isEmpty()) {
+            Customer last = items.get(items.size() - 1);
+            Customer first = items.get(0);
+            if (hasNext) {
+                nextCursor = new KeysetCursor(sortKey, sortField.format(last), last.getId(), false).encode();
+            }
+            if (hasPrev) {
+                prevCursor = new KeysetCursor(sortKey, sortField.format(first), first.getId(), true).encode();
+            }
+        }
+
+        Long totalCount = includeTotal ? customerRepository.countMatching(tenantId, filter, searchIds) : null;
+        return new CursorPage<>(items, nextCursor, prevCursor, totalCount);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Customer> findCustomers(String tenantId, CustomerFilter filter) {
+        return customerRepository.findMatching(tenantId, filter, searchIds(tenantId, filter));
+    }
+
+    /**
+     * Ids matching the filter's text search from the in-memory index, or null when there is no
+     * search, the index cannot answer, or the hit list is too long to pass to the query
+     */
+    private Collection<Long> searchIds(String tenantId, CustomerFilter filter) {
+        if (filter == null || !filter.hasSearch()) {
+            return null;
+        }
+        return customerSearchIndex.search(tenantId, filter.getSearch().trim())
+                .filter(ids -> ids.size() <= MAX_SEARCH_IDS)
+                .orElse(null);
     }
 
     @Override
     public Optional<Customer> getCustomerById(String tenantId, Long id) {
-        return customerRepository.findById(id)
-                .filter(customer -> customer.getTenantId().equals(tenantId));
+        return customerRepository.findByTenantIdAndId(tenantId, id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<EntityVersion> getCustomerVersion(String tenantId, Long id) {
+        return customerRepository.findVersionByTenantIdAndId(tenantId, id);
     }
 
     @Override
     public Optional<Customer> getCustomerByNumber(String tenantId, String customerNumber) {
-        return customerRepository.findByTenantIdAndCustomerNumber(tenantId, customerNumber);
+        return customerRepository.findByCustomerNumber(customerNumber);
     }
 
     @Override
@@ -51,7 +172,10 @@ public class CustomerServiceImpl implements CustomerService {
             customer.setCustomerType(Customer.CustomerType.SMALL_BUSINESS);
         }
         
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        customerSearchIndex.indexCustomer(saved);
+        customerExistenceFilter.add(tenantId, saved.getEmail(), saved.getCustomerNumber());
+        return saved;
     }
 
     @Override
@@ -82,7 +206,76 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setPaymentTerms(customerDetails.getPaymentTerms());
         customer.setUpdatedBy("system");
         
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        customerSearchIndex.indexCustomer(saved);
+        customerExistenceFilter.add(tenantId, saved.getEmail(), saved.getCustomerNumber());
+        return saved;
+    }
+
+    @Override
+    public Customer patchCustomer(String tenantId, Long id, JsonNode patch, String ifMatch) {
+        Customer customer = getCustomerById(tenantId, id)
+                .orElseThrow(() -> new EmptyResultDataAccessException("Customer not found", 1));
+        // Checked against the row this transaction writes; a commit in between fails the
+        // version check on flush instead of being overwritten
+        if (ifMatch != null && !EntityTags.matchesStrong(ifMatch, EntityTags.strong(customer))) {
+            throw new OptimisticLockingFailureException("Customer " + id + " does not match If-Match");
+        }
+
+        MergePatch.apply(objectMapper, customer, patch, PATCHABLE_FIELDS);
+        if (customer.getCompanyName() == null || customer.getEmail() == null
+                || customer.getStatus() == null || customer.getCustomerType() == null) {
+            throw new IllegalArgumentException("companyName, email, status and customerType cannot be cleared");
+        }
+        customer.setUpdatedBy("system");
+
+        // Flush so the returned entity carries the new version for the response ETag
+        Customer saved = customerRepository.saveAndFlush(customer);
+        customerSearchIndex.indexCustomer(saved);
+        customerExistenceFilter.add(tenantId, saved.getEmail(), saved.getCustomerNumber());
+        return saved;
+    }
+
+    @Override
+    public int patchCustomers(String tenantId, List<Long> ids, JsonNode patch) {
+        MergePatch.requireAllowed(patch, BATCH_PATCHABLE_FIELDS);
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > MAX_BATCH_PATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_PATCH_IDS + " customers can be patched at once");
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            PropertyDescriptor property = BeanUtils.getPropertyDescriptor(Customer.class, field.getKey());
+            Object value = field.getValue().isNull() ? null
+                    : objectMapper.convertValue(field.getValue(), property.getPropertyType());
+            if (value == null && REQUIRED_FIELDS.contains(field.getKey())) {
+                throw new IllegalArgumentException("Field cannot be cleared: " + field.getKey());
+            }
+            values.put(field.getKey(), value);
+        }
+        if (values.isEmpty()) {
+            return 0;
+        }
+
+        // Bulk UPDATE bypasses entity listeners, so record the change explicitly
+        int updated = customerRepository.updateFields(tenantId, distinctIds, values);
+        tenantChangeCounters.changed(tenantId, "customers");
+        return updated;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void recordContact(String tenantId, Long id, LocalDate date) {
+        if (customerRepository.findVersionByTenantIdAndId(tenantId, id).isEmpty()) {
+            throw new EmptyResultDataAccessException("Customer not found", 1);
+        }
+        touchUpdateBuffer.touch(TouchUpdateBuffer.Touch.CUSTOMER_LAST_CONTACT, tenantId, id, date);
     }
 
     @Override
@@ -90,6 +283,7 @@ public class CustomerServiceImpl implements CustomerService {
         Customer customer = getCustomerById(tenantId, id)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
         customerRepository.delete(customer);
+        customerSearchIndex.removeCustomer(tenantId, id);
     }
 
     @Override
@@ -97,35 +291,49 @@ public class CustomerServiceImpl implements CustomerService {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllCustomers(tenantId);
         }
-        return customerRepository.findByTenantIdAndSearchTerm(tenantId, searchTerm.trim());
+        String term = searchTerm.trim();
+        // Like searchIds(), hit lists too long to fetch by id go to the database instead
+        Optional<List<Long>> rankedIds = customerSearchIndex.search(tenantId, term)
+                .filter(ids -> ids.size() <= MAX_SEARCH_IDS);
+        if (rankedIds.isEmpty()) {
+            return customerRepository.findBySearchTerm(term);
+        }
+        if (rankedIds.get().isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Customer> byId = customerRepository.findAllById(rankedIds.get()).stream()
+                .filter(customer -> tenantId.equals(customer.getTenantId()))
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        return rankedIds.get().stream()
+                .map(byId::get)
+                .filter(customer -> customer != null)
+                .toList();
     }
 
     @Override
     public List<Customer> getCustomersByStatus(String tenantId, Customer.CustomerStatus status) {
-        return customerRepository.findByTenantIdAndStatus(tenantId, status);
+        return customerRepository.findByStatus(status);
     }
 
     @Override
     public List<Customer> getCustomersByType(String tenantId, Customer.CustomerType customerType) {
-        return customerRepository.findByTenantIdAndCustomerType(tenantId, customerType);
+        return customerRepository.findByCustomerType(customerType);
     }
 
     @Override
     public boolean existsByCustomerNumber(String tenantId, String customerNumber) {
-        return customerRepository.existsByTenantIdAndCustomerNumber(tenantId, customerNumber);
+        return customerExistenceFilter.customerNumberExists(tenantId, customerNumber);
     }
 
     @Override
     public boolean existsByEmail(String tenantId, String email) {
-        return customerRepository.existsByTenantIdAndEmail(tenantId, email);
+        return customerExistenceFilter.emailExists(tenantId, email);
     }
 
     @Override
     public String generateCustomerNumber(String tenantId) {
-        // Simple customer number generation: CUST-YYYY-XXXX
-        String year = String.valueOf(LocalDate.now().getYear());
-        long count = customerRepository.countByTenantId(tenantId) + 1;
-        return String.format("CUST-%s-%04d", year, count);
+        return documentNumberGenerator.next(tenantId, DocumentType.CUSTOMER);
     }
 }
 
@@ -1,5 +1,6 @@
 package com.saasplatform.service.impl;
 
+import com.saasplatform.dto.EntityVersion;
 import com.saasplatform.entity.SystemSettings;
 import com.saasplatform.repository.SystemSettingsRepository;
 import com.saasplatform.service.SettingsService;
@@ -34,6 +35,12 @@ public class SettingsServiceImpl implements SettingsService {
         return settingsRepository.findByTenantIdAndSettingKey(tenantId, key);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<EntityVersion> getSettingVersion(String tenantId, String key) {
+        return settingsRepository.findVersionByTenantIdAndSettingKey(tenantId, key);
+    }
+
     @Override
     public SystemSettings createSetting(String tenantId, SystemSettings setting) {
         setting.setTenantId(tenantId);
@@ -1,16 +1,40 @@
 package com.saasplatform.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasplatform.dto.CursorPage;
+import com.saasplatform.dto.EntityVersion;
+import com.saasplatform.dto.UserDirectoryEntry;
+import com.saasplatform.dto.UserDirectoryFilter;
+import com.saasplatform.dto.UserSuggestion;
 import com.saasplatform.entity.User;
 import com.saasplatform.repository.UserRepository;
+import com.saasplatform.security.RoleCatalog;
+import com.saasplatform.security.RoleDefinition;
+import com.saasplatform.security.SecurityEpochRegistry;
+import com.saasplatform.security.UserDetailsCache;
 import com.saasplatform.service.UserService;
+import com.saasplatform.service.UserTypeaheadIndex;
+import com.saasplatform.util.EntityTags;
+import com.saasplatform.util.KeysetCursor;
+import com.saasplatform.util.MergePatch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -18,8 +42,20 @@ import java.util.Optional;
 @Transactional
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 200;
+    private static final String DIRECTORY_SORT = "TENANT:asc";
+    private static final int MAX_TYPEAHEAD_RESULTS = 50;
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "firstName", "lastName", "email", "phone", "avatarUrl", "status", "preferences");
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SecurityEpochRegistry securityEpochRegistry;
+    private final UserDetailsCache userDetailsCache;
+    private final UserTypeaheadIndex userTypeaheadIndex;
+    private final RoleCatalog roleCatalog;
+    private final ObjectMapper objectMapper;
 
     @Override
     public User findByEmail(String email) {
@@ -28,7 +64,9 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userTypeaheadIndex.indexUser(saved);
+        return saved;
     }
 
     @Override
@@ -43,8 +81,13 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Optional<User> getUserById(String tenantId, Long id) {
-        return userRepository.findById(id)
-                .filter(user -> user.getTenantId().equals(tenantId));
+        return userRepository.findByTenantIdAndId(tenantId, id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<EntityVersion> getUserVersion(String tenantId, Long id) {
+        return userRepository.findVersionByTenantIdAndId(tenantId, id);
     }
 
     @Override
@@ -62,13 +105,18 @@ public class UserServiceImpl implements UserService {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userTypeaheadIndex.indexUser(saved);
+        return saved;
     }
 
     @Override
     public User updateUser(String tenantId, Long id, User userDetails) {
         User user = getUserById(tenantId, id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        String previousEmail = user.getEmail();
+        boolean passwordChanged = userDetails.getPassword() != null && !userDetails.getPassword().isEmpty();
+        boolean statusChanged = userDetails.getStatus() != user.getStatus();
         
         user.setFirstName(userDetails.getFirstName());
         user.setLastName(userDetails.getLastName());
@@ -78,11 +126,48 @@ public class UserServiceImpl implements UserService {
         user.setUpdatedBy("system");
         
         // Only update password if provided
-        if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
+        if (passwordChanged) {
             user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
         }
+        if (passwordChanged || statusChanged) {
+            bumpSecurityEpoch(user);
+        }
+        evictSecurityState(previousEmail);
+        evictSecurityState(user.getEmail());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userTypeaheadIndex.indexUser(saved);
+        return saved;
+    }
+
+    @Override
+    public User patchUser(String tenantId, Long id, JsonNode patch, String ifMatch) {
+        User user = getUserById(tenantId, id)
+                .orElseThrow(() -> new EmptyResultDataAccessException("User not found", 1));
+        // Checked against the row this transaction writes; a commit in between fails the
+        // version check on flush instead of being overwritten
+        if (ifMatch != null && !EntityTags.matchesStrong(ifMatch, EntityTags.strong(user))) {
+            throw new OptimisticLockingFailureException("User " + id + " does not match If-Match");
+        }
+        String previousEmail = user.getEmail();
+        User.UserStatus previousStatus = user.getStatus();
+
+        MergePatch.apply(objectMapper, user, patch, PATCHABLE_FIELDS);
+        if (user.getEmail() == null || user.getFirstName() == null
+                || user.getLastName() == null || user.getStatus() == null) {
+            throw new IllegalArgumentException("email, firstName, lastName and status cannot be cleared");
+        }
+        if (user.getStatus() != previousStatus) {
+            bumpSecurityEpoch(user);
+        }
+        user.setUpdatedBy("system");
+
+        // Flush so the returned entity carries the new version for the response ETag
+        User saved = userRepository.saveAndFlush(user);
+        userTypeaheadIndex.indexUser(saved);
+        evictSecurityState(previousEmail);
+        evictSecurityState(saved.getEmail());
+        return saved;
     }
 
     @Override
@@ -90,11 +175,15 @@ public class UserServiceImpl implements UserService {
         User user = getUserById(tenantId, id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         userRepository.delete(user);
+        userTypeaheadIndex.removeUser(tenantId, id);
+        // Tokens of a missing user are stale, no epoch to bump
+        evictSecurityState(user.getEmail());
     }
 
     @Override
     public List<User> getUsersByRole(String tenantId, String role) {
-        return userRepository.findByTenantIdAndRolesName(tenantId, role);
+        RoleDefinition definition = roleCatalog.findByName(role);
+        return definition != null ? userRepository.findByRoleId(definition.id()) : List.of();
     }
 
     @Override
@@ -102,7 +191,31 @@ public class UserServiceImpl implements UserService {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllUsers(tenantId);
         }
-        return userRepository.findByTenantIdAndSearchTerm(tenantId, searchTerm.trim());
+        return userRepository.findBySearchTerm(searchTerm.trim());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSuggestion> typeahead(String tenantId, String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_TYPEAHEAD_RESULTS));
+        return userTypeaheadIndex.search(tenantId, prefix, max)
+                .orElseGet(() -> searchActiveUsers(tenantId, prefix, max));
+    }
+
+    /**
+     * Database fallback while the tenant's index is loading or over its memory budget
+     */
+    private List<UserSuggestion> searchActiveUsers(String tenantId, String prefix, int limit) {
+        String term = prefix.trim().toLowerCase(Locale.ROOT);
+        return userRepository.findTypeaheadFieldsByTenantIdAndPrefix(tenantId, User.UserStatus.ACTIVE, term,
+                        PageRequest.of(0, limit)).stream()
+                .map(row -> new UserSuggestion((Long) row[0],
+                        UserTypeaheadIndex.displayName((String) row[1], (String) row[2], (String) row[3]),
+                        (String) row[3]))
+                .toList();
     }
 
     @Override
@@ -116,7 +229,9 @@ public class UserServiceImpl implements UserService {
         
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedBy("system");
+        bumpSecurityEpoch(user);
         userRepository.save(user);
+        evictSecurityState(user.getEmail());
     }
 
     @Override
@@ -126,7 +241,19 @@ public class UserServiceImpl implements UserService {
         
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedBy("system");
+        bumpSecurityEpoch(user);
         userRepository.save(user);
+        evictSecurityState(user.getEmail());
+    }
+
+    @Override
+    public void updatePasswordHash(String email, String encodedPassword) {
+        // Same password re-encoded with the current cost, so existing tokens stay valid
+        userRepository.findByEmail(email).ifPresent(user -> {
+            user.setPassword(encodedPassword);
+            userRepository.save(user);
+            userDetailsCache.evict(email);
+        });
     }
 
     @Override
@@ -134,14 +261,102 @@ public class UserServiceImpl implements UserService {
         User user = getUserById(tenantId, userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
+        if (user.getStatus() != status) {
+            bumpSecurityEpoch(user);
+        }
         user.setStatus(status);
         user.setUpdatedBy("system");
         userRepository.save(user);
+        userTypeaheadIndex.indexUser(user);
+        evictSecurityState(user.getEmail());
     }
     
     @Override
     public long getTotalUserCount() {
         return userRepository.count();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserDirectoryEntry> getUserDirectory(UserDirectoryFilter filter, String cursor, int limit,
+                                                           boolean includeTotal) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_DIRECTORY_PAGE_SIZE));
+        KeysetCursor position = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+        if (position != null && !DIRECTORY_SORT.equals(position.sort())) {
+            throw new IllegalArgumentException("Cursor does not belong to the user directory");
+        }
+        boolean backward = position != null && position.backward();
+
+        Long roleId = null;
+        if (filter != null && filter.getRole() != null && !filter.getRole().isBlank()) {
+            RoleDefinition role = roleCatalog.findByName(filter.getRole().trim());
+            if (role == null) {
+                return new CursorPage<>(List.of(), null, null, includeTotal ? 0L : null);
+            }
+            roleId = role.id();
+        }
+
+        // Fetch one extra row to learn whether another page exists in the scan direction
+        List<UserDirectoryEntry> rows = userRepository.findDirectoryPage(filter, roleId, !backward,
+                position != null ? position.value() : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<UserDirectoryEntry> items = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        if (backward) {
+            Collections.reverse(items);
+        }
+        attachRoles(items);
+
+        boolean hasNext = backward || hasMore;
+        boolean hasPrev = backward ? hasMore : position != null;
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!items.isEmpty()) {
+            UserDirectoryEntry last = items.get(items.size() - 1);
+            UserDirectoryEntry first = items.get(0);
+            if (hasNext) {
+                nextCursor = new KeysetCursor(DIRECTORY_SORT, last.getTenantId(), last.getId(), false).encode();
+            }
+            if (hasPrev) {
+                prevCursor = new KeysetCursor(DIRECTORY_SORT, first.getTenantId(), first.getId(), true).encode();
+            }
+        }
+
+        Long totalCount = includeTotal ? userRepository.countDirectory(filter, roleId) : null;
+        return new CursorPage<>(items, nextCursor, prevCursor, totalCount);
+    }
+
+    /**
+     * Fill role names for a page with one id query, named from the role catalog
+     */
+    private void attachRoles(List<UserDirectoryEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<Long, UserDirectoryEntry> byId = new HashMap<>();
+        for (UserDirectoryEntry entry : entries) {
+            entry.setRoles(new ArrayList<>());
+            byId.put(entry.getId(), entry);
+        }
+        for (Object[] row : userRepository.findRoleIdsByUserIds(byId.keySet())) {
+            RoleDefinition role = roleCatalog.findById((Long) row[1]);
+            if (role != null) {
+                byId.get((Long) row[0]).getRoles().add(role.name());
+            }
+        }
+    }
+
+    /**
+     * Invalidate every token issued to the user so far, once the change commits
+     */
+    private static void bumpSecurityEpoch(User user) {
+        user.setSecurityEpoch((user.getSecurityEpoch() != null ? user.getSecurityEpoch() : 0L) + 1);
+    }
+
+    private void evictSecurityState(String email) {
+        securityEpochRegistry.evict(email);
+        userDetailsCache.evict(email);
+    }
 }
 
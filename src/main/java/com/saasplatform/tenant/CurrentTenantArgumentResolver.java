@@ -0,0 +1,29 @@
+package com.saasplatform.tenant;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+@Component
+public class CurrentTenantArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentTenant.class)
+                && (String.class.equals(parameter.getParameterType())
+                    || TenantDescriptor.class.equals(parameter.getParameterType()));
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        TenantDescriptor tenant = TenantContext.getTenant();
+        if (tenant == null) {
+            throw new IllegalStateException("No tenant resolved for request");
+        }
+        return String.class.equals(parameter.getParameterType()) ? tenant.tenantId() : tenant;
+    }
+}
@@ -0,0 +1,153 @@
+package com.saasplatform.tenant;
+
+import com.saasplatform.security.SecurityUser;
+import com.saasplatform.util.GcraRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-tenant bulkhead: caps in-flight requests and the request rate of each tenant according
+ * to its plan, so one tenant cannot exhaust request threads or connections for the others.
+ * Unauthenticated requests are limited in a separate bulkhead per tenant. Async requests stay
+ * in flight until their response completes. Runs inside {@link TenantFilter}; requests without
+ * a tenant are not limited.
+ */
+@Component
+@Order(TenantFilter.ORDER + 1)
+@RequiredArgsConstructor
+@Slf4j
+public class TenantAdmissionFilter extends OncePerRequestFilter {
+
+    private static final String ANONYMOUS_SUFFIX = "#anonymous";
+
+    private final TenantAdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        TenantDescriptor tenant = TenantContext.getTenant();
+        if (tenant == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheadFor(tenant, isAnonymous());
+        long waitNanos = bulkhead.rateLimiter().tryAcquire();
+        if (waitNanos > 0) {
+            bulkhead.rateRejections().increment();
+            reject(response, Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+            return;
+        }
+
+        if (bulkhead.inFlight().incrementAndGet() > bulkhead.limits().getMaxConcurrent()) {
+            bulkhead.inFlight().decrementAndGet();
+            bulkhead.concurrencyRejections().increment();
+            reject(response, 1L);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The handler goes on in another thread; released once the response completes
+                request.getAsyncContext().addListener(new ReleaseOnComplete(bulkhead.inFlight()));
+            } else {
+                bulkhead.inFlight().decrementAndGet();
+            }
+        }
+    }
+
+    private boolean isAnonymous() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !(authentication.getPrincipal() instanceof SecurityUser);
+    }
+
+    private Bulkhead bulkheadFor(TenantDescriptor tenant, boolean anonymous) {
+        TenantAdmissionProperties.Limits limits = anonymous ? properties.getAnonymous() : properties.limitsFor(tenant);
+        String key = anonymous ? tenant.tenantId() + ANONYMOUS_SUFFIX : tenant.tenantId();
+        Bulkhead bulkhead = bulkheads.get(key);
+        if (bulkhead != null && bulkhead.limits().equals(limits)) {
+            return bulkhead;
+        }
+        String caller = anonymous ? "anonymous" : "user";
+        // First request, or the tenant's plan changed; in-flight counting carries over
+        return bulkheads.compute(key, (ignored, current) -> {
+            if (current != null && current.limits().equals(limits)) {
+                return current;
+            }
+            AtomicInteger inFlight = current != null ? current.inFlight() : new AtomicInteger();
+            return new Bulkhead(limits,
+                    new GcraRateLimiter(limits.getRequestsPerSecond(), limits.getBurst()),
+                    inFlight,
+                    meterRegistry.counter("tenant.admission.rejected",
+                            "tenant", tenant.tenantId(), "caller", caller, "reason", "rate"),
+                    meterRegistry.counter("tenant.admission.rejected",
+                            "tenant", tenant.tenantId(), "caller", caller, "reason", "concurrency"));
+        });
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests for this tenant, please retry later");
+    }
+
+    private record ReleaseOnComplete(AtomicInteger inFlight) implements AsyncListener {
+
+        // Also called after errors and timeouts
+        @Override
+        public void onComplete(AsyncEvent event) {
+            inFlight.decrementAndGet();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        // A new async cycle drops the listeners of the previous one
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private record Bulkhead(TenantAdmissionProperties.Limits limits,
+                            GcraRateLimiter rateLimiter,
+                            AtomicInteger inFlight,
+                            Counter rateRejections,
+                            Counter concurrencyRejections) {
+    }
+}
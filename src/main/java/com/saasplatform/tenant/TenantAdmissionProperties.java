@@ -0,0 +1,53 @@
+package com.saasplatform.tenant;
+
+import com.saasplatform.entity.Company;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-tenant admission limits, by subscription plan with optional per-tenant overrides.
+ * Unauthenticated requests are counted separately under the anonymous limits.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.tenant.admission")
+public class TenantAdmissionProperties {
+
+    private boolean enabled = true;
+
+    private Map<Company.SubscriptionPlan, Limits> plans = new EnumMap<>(Map.of(
+            Company.SubscriptionPlan.STARTER, new Limits(10, 20, 40),
+            Company.SubscriptionPlan.PROFESSIONAL, new Limits(25, 50, 100),
+            Company.SubscriptionPlan.ENTERPRISE, new Limits(100, 200, 400),
+            Company.SubscriptionPlan.CUSTOM, new Limits(50, 100, 200)));
+
+    // Keyed by tenant id
+    private Map<String, Limits> overrides = new HashMap<>();
+
+    // Per tenant, for requests without an authenticated user
+    private Limits anonymous = new Limits(10, 20, 40);
+
+    public Limits limitsFor(TenantDescriptor tenant) {
+        Limits limits = overrides.get(tenant.tenantId());
+        if (limits == null && tenant.plan() != null) {
+            limits = plans.get(tenant.plan());
+        }
+        return limits != null ? limits : plans.get(Company.SubscriptionPlan.STARTER);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limits {
+        private int maxConcurrent;
+        private double requestsPerSecond;
+        private int burst;
+    }
+}
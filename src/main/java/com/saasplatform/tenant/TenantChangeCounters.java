@@ -0,0 +1,116 @@
+package com.saasplatform.tenant;
+
+import com.saasplatform.entity.TenantChangeCounter;
+import com.saasplatform.repository.TenantChangeCounterRepository;
+import com.saasplatform.util.EntityTags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Per-tenant, per-table change counters shared by all nodes, read to build weak ETags for
+ * list endpoints. A transaction's writes bump each touched counter once, after commit and in
+ * a separate short transaction, so the counter row is never locked for the length of a
+ * business transaction. A reader racing the bump can at worst get a stale tag for a few
+ * milliseconds, until the next poll.
+ */
+@Component
+@Slf4j
+public class TenantChangeCounters {
+
+    private final TenantChangeCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public TenantChangeCounters(TenantChangeCounterRepository counterRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Weak ETag for a tenant's listing of the table; variant distinguishes responses of the
+     * same table that differ by query parameters. Read it before loading the list, so a
+     * concurrent change can only make the tag older than the body, never newer.
+     */
+    public String listETag(String tenantId, String tableName, String variant) {
+        long counter = counterRepository.findCounter(tenantId, tableName).orElse(0L);
+        String key = tenantId + "?" + (variant != null ? variant : "");
+        return EntityTags.weak(tableName + "-" + counter + "-" + Integer.toHexString(key.hashCode()));
+    }
+
+    /**
+     * Current value of the tenant's counter for the table, 0 if it was never bumped
+     */
+    public long counter(String tenantId, String tableName) {
+        return counterRepository.findCounter(tenantId, tableName).orElse(0L);
+    }
+
+    /**
+     * Record that the current transaction wrote the tenant's rows in the table
+     */
+    public void changed(String tenantId, String tableName) {
+        if (tenantId == null) {
+            return;
+        }
+        String key = tenantId + "\u0000" + tableName;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(key);
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.keys.add(key);
+    }
+
+    private void increment(String key) {
+        int separator = key.indexOf('\u0000');
+        String tenantId = key.substring(0, separator);
+        String tableName = key.substring(separator + 1);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (counterRepository.increment(tenantId, tableName) == 0) {
+                    TenantChangeCounter counter = new TenantChangeCounter();
+                    counter.setTenantId(tenantId);
+                    counter.setTableName(tableName);
+                    counter.setCounter(1L);
+                    counter.setCreatedBy("system");
+                    counterRepository.saveAndFlush(counter);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the row first
+            transactionTemplate.executeWithoutResult(status -> counterRepository.increment(tenantId, tableName));
+        } catch (Exception e) {
+            log.warn("Failed to bump change counter for {} of tenant {}", tableName, tenantId, e);
+        }
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+        private final Set<String> keys = new LinkedHashSet<>();
+
+        @Override
+        public void afterCommit() {
+            for (String key : keys) {
+                increment(key);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TenantChangeCounters.this);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.saasplatform.tenant;
+
+import com.saasplatform.entity.BaseEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Filter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JPA listener bumping {@link TenantChangeCounters} for writes to tenant-owned entities,
+ * i.e. those scoped by the tenant filter. Bulk and JDBC writes bypass it and bump the
+ * counter themselves.
+ */
+public class TenantChangeListener {
+
+    private static final ConcurrentMap<Class<?>, String> TABLES = new ConcurrentHashMap<>();
+    private static final String NOT_TRACKED = "";
+
+    private final TenantChangeCounters changeCounters;
+
+    public TenantChangeListener(TenantChangeCounters changeCounters) {
+        this.changeCounters = changeCounters;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (!(entity instanceof BaseEntity baseEntity)) {
+            return;
+        }
+        String tableName = TABLES.computeIfAbsent(entity.getClass(), TenantChangeListener::trackedTable);
+        if (!tableName.isEmpty()) {
+            changeCounters.changed(baseEntity.getTenantId(), tableName);
+        }
+    }
+
+    private static String trackedTable(Class<?> type) {
+        Filter filter = type.getAnnotation(Filter.class);
+        Table table = type.getAnnotation(Table.class);
+        if (filter == null || !BaseEntity.TENANT_FILTER.equals(filter.name()) || table == null) {
+            return NOT_TRACKED;
+        }
+        return table.name();
+    }
+}
@@ -0,0 +1,65 @@
+package com.saasplatform.tenant;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Tenant of the current unit of work. Set once per request by {@link TenantFilter} and
+ * carried across {@code @Async} and executor hand-offs by {@link #wrap(Runnable)}.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<TenantDescriptor> CURRENT_TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static TenantDescriptor getTenant() {
+        return CURRENT_TENANT.get();
+    }
+
+    public static String getTenantId() {
+        TenantDescriptor tenant = CURRENT_TENANT.get();
+        return tenant != null ? tenant.tenantId() : null;
+    }
+
+    public static void setTenant(TenantDescriptor tenant) {
+        if (tenant == null) {
+            CURRENT_TENANT.remove();
+        } else {
+            CURRENT_TENANT.set(tenant);
+        }
+    }
+
+    public static void clear() {
+        CURRENT_TENANT.remove();
+    }
+
+    /**
+     * Bind the caller's tenant to a task that will run on another thread
+     */
+    public static Runnable wrap(Runnable task) {
+        TenantDescriptor tenant = getTenant();
+        return () -> {
+            TenantDescriptor previous = getTenant();
+            setTenant(tenant);
+            try {
+                task.run();
+            } finally {
+                setTenant(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        TenantDescriptor tenant = getTenant();
+        return () -> {
+            TenantDescriptor previous = getTenant();
+            setTenant(tenant);
+            try {
+                return task.call();
+            } finally {
+                setTenant(previous);
+            }
+        };
+    }
+}
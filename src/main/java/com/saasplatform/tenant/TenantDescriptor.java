@@ -0,0 +1,37 @@
+package com.saasplatform.tenant;
+
+import com.saasplatform.entity.Company;
+
+/**
+ * Immutable view of a tenant's company, resolved once per request from the {@link TenantRegistry}
+ */
+public record TenantDescriptor(Long companyId,
+                               String tenantId,
+                               String name,
+                               String subdomain,
+                               String domain,
+                               Company.CompanyStatus status,
+                               Company.SubscriptionPlan plan) {
+
+    public static TenantDescriptor from(Company company) {
+        return new TenantDescriptor(
+                company.getId(),
+                company.getTenantId(),
+                company.getName(),
+                normalize(company.getSubdomain()),
+                normalize(company.getDomain()),
+                company.getStatus(),
+                company.getPlan());
+    }
+
+    /**
+     * Suspended and cancelled tenants are refused at the edge
+     */
+    public boolean isAccessible() {
+        return status != Company.CompanyStatus.SUSPENDED && status != Company.CompanyStatus.CANCELLED;
+    }
+
+    static String normalize(String hostPart) {
+        return hostPart != null && !hostPart.isBlank() ? hostPart.trim().toLowerCase() : null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.saasplatform.tenant;
+
+import com.saasplatform.entity.BaseEntity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.util.function.Consumer;
+
+/**
+ * Enables the tenant filter on every new EntityManager while a tenant is bound, so queries
+ * on tenant-owned entities are scoped without repeating the tenant in each repository method
+ */
+public class TenantEntityManagerInitializer implements Consumer<EntityManager> {
+
+    @Override
+    public void accept(EntityManager entityManager) {
+        String tenantId = TenantContext.getTenantId();
+        if (tenantId != null) {
+            entityManager.unwrap(Session.class)
+                    .enableFilter(BaseEntity.TENANT_FILTER)
+                    .setParameter(BaseEntity.TENANT_PARAMETER, tenantId);
+        }
+    }
+}
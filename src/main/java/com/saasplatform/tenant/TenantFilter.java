@@ -0,0 +1,179 @@
+package com.saasplatform.tenant;
+
+import com.saasplatform.security.SecurityUser;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves the tenant once per request against the {@link TenantRegistry} and binds its
+ * descriptor to {@link TenantContext}. Runs after JWT authentication so an authenticated user
+ * is always pinned to their own tenant; only super admins may address another tenant
+ * explicitly. Unknown and suspended tenants are rejected without touching the database.
+ */
+@Component
+@Order(TenantFilter.ORDER)
+@Slf4j
+@RequiredArgsConstructor
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 10;
+
+    private static final String TENANT_PARAMETER = "tenantId";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final List<String> UNSCOPED_PATHS = List.of(
+            "/super-admin", "/auth", "/public", "/actuator", "/h2-console", "/swagger-ui", "/v3/api-docs");
+
+    private final TenantRegistry tenantRegistry;
+    private final TenantWriteFence writeFence;
+
+    @Value("${app.tenant.resolution.header:X-Tenant-ID}")
+    private String tenantHeader;
+
+    @Value("${app.tenant.resolution.subdomain:true}")
+    private boolean subdomainResolution;
+
+    @Value("${app.tenant.default-id:default}")
+    private String defaultTenantId;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return UNSCOPED_PATHS.stream().anyMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!tenantRegistry.isLoaded()) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Tenant registry not loaded");
+            return;
+        }
+
+        String requestedTenant = firstNonEmpty(request.getHeader(tenantHeader), request.getParameter(TENANT_PARAMETER));
+        SecurityUser user = currentUser();
+        boolean superAdmin = user != null && user.getPermissionSnapshot().isSuperAdmin();
+
+        TenantDescriptor tenant;
+        if (user != null && !superAdmin) {
+            if (requestedTenant != null && !requestedTenant.equals(user.getTenantId())) {
+                log.warn("User {} requested tenant {} outside their own", user.getEmail(), requestedTenant);
+                response.sendError(HttpServletResponse.SC_FORBIDDEN, "Tenant not accessible");
+                return;
+            }
+            tenant = tenantRegistry.findByTenantId(user.getTenantId());
+        } else if (requestedTenant != null) {
+            tenant = tenantRegistry.findByTenantId(requestedTenant);
+        } else if (user != null) {
+            tenant = tenantRegistry.findByTenantId(user.getTenantId());
+        } else {
+            // Hosts that match no tenant fall back to the default tenant
+            tenant = subdomainResolution ? resolveFromHost(request) : null;
+            if (tenant == null) {
+                tenant = tenantRegistry.findByTenantId(defaultTenantId);
+            }
+        }
+
+        if (tenant == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown tenant");
+            return;
+        }
+        if (!tenant.isAccessible() && !superAdmin) {
+            log.warn("Rejected request for {} tenant {}", tenant.status(), tenant.tenantId());
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Tenant is not active");
+            return;
+        }
+
+        // Writes are held back while the tenant is being moved between placements
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write && !writeFence.tryEnter(tenant.tenantId())) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Tenant is being migrated, please retry");
+            return;
+        }
+
+        TenantContext.setTenant(tenant);
+        try {
+            log.debug("Tenant resolved: {}", tenant.tenantId());
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+            if (write && request.isAsyncStarted()) {
+                // The write goes on in another thread; a placement move must wait for it
+                String tenantId = tenant.tenantId();
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        writeFence.exit(tenantId);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                        event.getAsyncContext().addListener(this);
+                    }
+                });
+            } else if (write) {
+                writeFence.exit(tenant.tenantId());
+            }
+        }
+    }
+
+    private SecurityUser currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof SecurityUser user) {
+            return user;
+        }
+        return null;
+    }
+
+    private TenantDescriptor resolveFromHost(HttpServletRequest request) {
+        String host = request.getServerName();
+        if (host == null) {
+            return null;
+        }
+        TenantDescriptor tenant = tenantRegistry.findByDomain(host);
+        if (tenant == null && host.contains(".")) {
+            String subdomain = host.substring(0, host.indexOf("."));
+            if (!subdomain.equals("www") && !subdomain.equals("api")) {
+                tenant = tenantRegistry.findBySubdomain(subdomain);
+            }
+        }
+        return tenant;
+    }
+
+    private String firstNonEmpty(String... values) {
+        for (String value : values) {
+            if (StringUtils.hasText(value)) {
+                return value.trim();
+            }
+        }
+        return null;
+    }
+}
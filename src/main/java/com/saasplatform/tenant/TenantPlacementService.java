@@ -0,0 +1,479 @@
+package com.saasplatform.tenant;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Places tenants in dedicated schemas of the shared database. Each placement gets its own
+ * Hikari pool whose search path puts the tenant schema in front of the shared one, so the
+ * tenant-owned tables resolve to the dedicated copies while users, roles and companies stay
+ * shared. Placements are stored in tenant_placements and restored, with their schemas
+ * migrated in parallel, at startup.
+ * <p>
+ * Moves are coordinated across nodes through the database. Every change bumps
+ * tenant_placement_version. Each node polls it, applies the new state and records the applied
+ * version in tenant_placement_nodes. A move first lists the tenant in tenant_placement_moves,
+ * then waits until every node holds back the tenant's writes. It copies the rows, switches the
+ * placement, and waits again until every node routes to the new placement. Only then does it
+ * delete the source rows and release the writes. A node that cannot sync stops serving tenants
+ * (see {@link TenantRoutingDataSource}), so a move can safely stop waiting for it.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.tenant.routing", name = "enabled", havingValue = "true")
+@Slf4j
+public class TenantPlacementService implements SmartInitializingSingleton, DisposableBean {
+
+    private static final String TENANT_MIGRATIONS = "classpath:db/tenant";
+    // Insert order respects foreign keys; deletes run in reverse
+    private static final List<String> TENANT_TABLES = List.of("customers", "leads", "quotes", "quote_items", "bookings");
+    private static final Pattern SCHEMA_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final TenantRoutingDataSource routingDataSource;
+    private final DataSourceProperties dataSourceProperties;
+    private final TenantRegistry tenantRegistry;
+    private final TenantWriteFence writeFence;
+    private final MeterRegistry meterRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<String, Placement> placements = new ConcurrentHashMap<>();
+    private final String nodeId = UUID.randomUUID().toString();
+    // Guards applying placement state: the placements map, routes and held tenants
+    private final Object stateLock = new Object();
+    private final Set<String> heldTenants = new HashSet<>();
+    private volatile long appliedVersion = -1;
+
+    private final int defaultPoolSize;
+    private final int migrationThreads;
+    private final long drainTimeoutMs;
+    private final String sharedSchema;
+    private final long syncIntervalMs;
+    private final long nodeTimeoutMs;
+    private final long moveAckTimeoutMs;
+    private final Counter cleanupFailures;
+
+    public TenantPlacementService(TenantRoutingDataSource routingDataSource,
+                                  DataSourceProperties dataSourceProperties,
+                                  TenantRegistry tenantRegistry,
+                                  TenantWriteFence writeFence,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.tenant.routing.pool-size:10}") int defaultPoolSize,
+                                  @Value("${app.tenant.routing.migration-threads:4}") int migrationThreads,
+                                  @Value("${app.tenant.routing.drain-timeout-ms:10000}") long drainTimeoutMs,
+                                  @Value("${app.tenant.routing.shared-schema:public}") String sharedSchema,
+                                  @Value("${app.tenant.routing.sync-interval-ms:1000}") long syncIntervalMs,
+                                  @Value("${app.tenant.routing.node-timeout-ms:30000}") long nodeTimeoutMs,
+                                  @Value("${app.tenant.routing.move-ack-timeout-ms:90000}") long moveAckTimeoutMs) {
+        this.routingDataSource = routingDataSource;
+        this.dataSourceProperties = dataSourceProperties;
+        this.tenantRegistry = tenantRegistry;
+        this.writeFence = writeFence;
+        this.meterRegistry = meterRegistry;
+        this.jdbcTemplate = new JdbcTemplate(routingDataSource.getSharedDataSource());
+        this.transactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(routingDataSource.getSharedDataSource()));
+        this.defaultPoolSize = defaultPoolSize;
+        this.migrationThreads = migrationThreads;
+        this.drainTimeoutMs = drainTimeoutMs;
+        this.sharedSchema = sharedSchema;
+        this.syncIntervalMs = syncIntervalMs;
+        this.nodeTimeoutMs = nodeTimeoutMs;
+        this.moveAckTimeoutMs = moveAckTimeoutMs;
+        this.cleanupFailures = meterRegistry.counter("tenant.placement.cleanup.failures");
+    }
+
+    /**
+     * Outcome of a move. The move itself is committed either way; when the tenant's rows could
+     * not be removed from the source schema they are left behind, unused, and cleared by the
+     * next move into that schema.
+     */
+    public record MoveResult(String tenantId, String sourceSchema, String targetSchema, boolean sourceRowsRemoved) {
+    }
+
+    public record Placement(String tenantId, String schema, int poolSize) {
+    }
+
+    /**
+     * Restore stored placements once the shared schema has been migrated
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrateSchemas(jdbcTemplate.queryForList("SELECT schema_name FROM tenant_placements", String.class));
+        sync();
+        log.info("Restored {} dedicated tenant placements", placements.size());
+    }
+
+    /**
+     * Apply placement changes made on other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.tenant.routing.sync-interval-ms:1000}",
+               initialDelayString = "${app.tenant.routing.sync-interval-ms:1000}")
+    public void refresh() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.warn("Failed to sync tenant placements", e);
+        }
+    }
+
+    public List<Placement> getPlacements() {
+        return List.copyOf(placements.values());
+    }
+
+    /**
+     * Move a tenant from the shared schema into its own schema. Reads keep being served
+     * throughout; writes are held back on every node while rows are copied.
+     */
+    public synchronized MoveResult moveToSchema(String tenantId, String schema, Integer poolSize) {
+        if (schema == null || !SCHEMA_NAME.matcher(schema).matches() || schema.equals(sharedSchema)) {
+            throw new RuntimeException("Invalid schema name: " + schema);
+        }
+        if (tenantRegistry.findByTenantId(tenantId) == null) {
+            throw new RuntimeException("Tenant not found");
+        }
+        if (placements.containsKey(tenantId)) {
+            throw new RuntimeException("Tenant already has a dedicated placement");
+        }
+
+        int size = poolSize != null ? poolSize : defaultPoolSize;
+        migrateSchema(schema);
+        boolean sourceRowsRemoved = withWritesHeld(tenantId, () -> {
+            long placed = publish(() -> {
+                copyTenantRows(tenantId, sharedSchema, schema);
+                jdbcTemplate.update("INSERT INTO tenant_placements (tenant_id, schema_name, pool_size) VALUES (?, ?, ?)",
+                        tenantId, schema, size);
+            });
+            return switchedEverywhere(placed) && deleteSourceRows(tenantId, sharedSchema);
+        });
+        log.info("Moved tenant {} to schema {}", tenantId, schema);
+        return new MoveResult(tenantId, sharedSchema, schema, sourceRowsRemoved);
+    }
+
+    /**
+     * Move a tenant from its dedicated schema back to the shared one
+     */
+    public synchronized MoveResult moveToShared(String tenantId) {
+        Placement placement = placements.get(tenantId);
+        if (placement == null) {
+            throw new RuntimeException("Tenant has no dedicated placement");
+        }
+
+        boolean sourceRowsRemoved = withWritesHeld(tenantId, () -> {
+            long placed = publish(() -> {
+                copyTenantRows(tenantId, placement.schema(), sharedSchema);
+                jdbcTemplate.update("DELETE FROM tenant_placements WHERE tenant_id = ?", tenantId);
+            });
+            return switchedEverywhere(placed) && deleteSourceRows(tenantId, placement.schema());
+        });
+        log.info("Moved tenant {} back to schema {}", tenantId, sharedSchema);
+        return new MoveResult(tenantId, placement.schema(), sharedSchema, sourceRowsRemoved);
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            jdbcTemplate.update("DELETE FROM tenant_placement_nodes WHERE node_id = ?", nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to deregister node {} from tenant placement sync", nodeId, e);
+        }
+        placements.keySet().forEach(tenantId -> close(routingDataSource.removePlacement(tenantId)));
+    }
+
+    /**
+     * Run the action while every node holds back the tenant's writes, releasing them after
+     */
+    private <T> T withWritesHeld(String tenantId, Supplier<T> action) {
+        long held;
+        try {
+            held = publish(() -> jdbcTemplate.update("INSERT INTO tenant_placement_moves (tenant_id) VALUES (?)", tenantId));
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Tenant " + tenantId + " is already being moved", e);
+        }
+        try {
+            sync();
+            if (!awaitNodes(held)) {
+                throw new RuntimeException("Not every node held back writes of tenant " + tenantId + " in time");
+            }
+            return action.get();
+        } finally {
+            try {
+                publish(() -> jdbcTemplate.update("DELETE FROM tenant_placement_moves WHERE tenant_id = ?", tenantId));
+                sync();
+            } catch (RuntimeException e) {
+                log.error("Failed to release writes of tenant {}; they stay held until its tenant_placement_moves row is deleted",
+                        tenantId, e);
+            }
+        }
+    }
+
+    /**
+     * Apply the published placement change here and wait for the other nodes to apply it
+     *
+     * @return false if some node still routes the tenant to its old placement; its rows there
+     *         are then kept, and cleared by the next move into that schema
+     */
+    private boolean switchedEverywhere(long version) {
+        sync();
+        if (awaitNodes(version)) {
+            return true;
+        }
+        cleanupFailures.increment();
+        return false;
+    }
+
+    /**
+     * Run the change and bump the placement version in one transaction
+     *
+     * @return the new version
+     */
+    private long publish(Runnable change) {
+        return transactionTemplate.execute(status -> {
+            change.run();
+            jdbcTemplate.update("UPDATE tenant_placement_version SET version = version + 1 WHERE id = 1");
+            return jdbcTemplate.queryForObject("SELECT version FROM tenant_placement_version WHERE id = 1", Long.class);
+        });
+    }
+
+    /**
+     * Apply the stored placement state if its version moved, then record the applied version
+     * and confirm this node's routes as current
+     */
+    private void sync() {
+        long started = System.currentTimeMillis();
+        synchronized (stateLock) {
+            // Read before the state, so the recorded version is never newer than what was applied
+            long version = jdbcTemplate.queryForObject("SELECT version FROM tenant_placement_version WHERE id = 1", Long.class);
+            if (version != appliedVersion) {
+                apply();
+                appliedVersion = version;
+            }
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        if (jdbcTemplate.update("UPDATE tenant_placement_nodes SET applied_version = ?, synced_at = ? WHERE node_id = ?",
+                appliedVersion, now, nodeId) == 0) {
+            jdbcTemplate.update("INSERT INTO tenant_placement_nodes (node_id, applied_version, synced_at) VALUES (?, ?, ?)",
+                    nodeId, appliedVersion, now);
+        }
+        routingDataSource.markRoutesCurrentUntil(started + nodeTimeoutMs);
+    }
+
+    private void apply() {
+        Set<String> moving = new HashSet<>(jdbcTemplate.queryForList("SELECT tenant_id FROM tenant_placement_moves", String.class));
+        Map<String, Placement> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT tenant_id, schema_name, pool_size FROM tenant_placements", rs -> {
+            stored.put(rs.getString("tenant_id"), new Placement(rs.getString("tenant_id"), rs.getString("schema_name"),
+                    rs.getObject("pool_size") != null ? rs.getInt("pool_size") : defaultPoolSize));
+        });
+
+        // Hold back writes of tenants being moved and let the ones already running here finish
+        for (String tenantId : moving) {
+            writeFence.freeze(tenantId);
+            heldTenants.add(tenantId);
+        }
+        for (String tenantId : moving) {
+            try {
+                if (!writeFence.awaitDrained(tenantId, drainTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new RuntimeException("Timed out waiting for in-flight writes of tenant " + tenantId);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while holding back writes of tenant " + tenantId, e);
+            }
+        }
+
+        // Switch routes before releasing writes, so released writes go to the new placement
+        for (Placement placement : stored.values()) {
+            if (!placement.equals(placements.get(placement.tenantId()))) {
+                DataSource previous = routingDataSource.removePlacement(placement.tenantId());
+                routingDataSource.addPlacement(placement.tenantId(), createPool(placement));
+                placements.put(placement.tenantId(), placement);
+                close(previous);
+            }
+        }
+        for (String tenantId : List.copyOf(placements.keySet())) {
+            if (!stored.containsKey(tenantId)) {
+                placements.remove(tenantId);
+                close(routingDataSource.removePlacement(tenantId));
+            }
+        }
+
+        heldTenants.removeIf(tenantId -> {
+            if (moving.contains(tenantId)) {
+                return false;
+            }
+            writeFence.unfreeze(tenantId);
+            return true;
+        });
+    }
+
+    /**
+     * Wait until every live node has applied the version
+     *
+     * @return false if some node had not when the timeout elapsed
+     */
+    private boolean awaitNodes(long version) {
+        long deadline = System.currentTimeMillis() + moveAckTimeoutMs;
+        while (true) {
+            // A node silent this long has refused tenant connections for a while already
+            jdbcTemplate.update("DELETE FROM tenant_placement_nodes WHERE synced_at < ?",
+                    new Timestamp(System.currentTimeMillis() - 2 * nodeTimeoutMs));
+            List<String> behind = jdbcTemplate.queryForList(
+                    "SELECT node_id FROM tenant_placement_nodes WHERE applied_version < ?", String.class, version);
+            if (behind.isEmpty()) {
+                return true;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn("Nodes {} did not apply tenant placement version {} in time", behind, version);
+                return false;
+            }
+            try {
+                Thread.sleep(Math.max(10, syncIntervalMs / 4));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for nodes to apply placement version " + version, e);
+            }
+        }
+    }
+
+    private void copyTenantRows(String tenantId, String fromSchema, String toSchema) {
+        // Rows left in the target by an earlier move whose cleanup failed are stale; the tenant
+        // is not routed to them, and keeping them would collide with the copies
+        deleteRows(tenantId, toSchema);
+        for (String table : TENANT_TABLES) {
+            List<String> columns = columns(toSchema, table);
+            if (!columns.equals(columns(fromSchema, table))) {
+                throw new RuntimeException("Table " + table + " differs between schemas " + fromSchema + " and " + toSchema);
+            }
+            String columnList = String.join(", ", columns);
+            int copied = jdbcTemplate.update("INSERT INTO " + qualified(toSchema, table) + " (" + columnList + ") SELECT "
+                    + columnList + " FROM " + qualified(fromSchema, table) + " WHERE tenant_id = ?", tenantId);
+            log.debug("Copied {} {} rows of tenant {} to {}", copied, table, tenantId, toSchema);
+        }
+    }
+
+    /**
+     * @return false if the rows were left behind; the move stands, the next move into the
+     *         schema clears them
+     */
+    private boolean deleteSourceRows(String tenantId, String schema) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> deleteRows(tenantId, schema));
+            return true;
+        } catch (RuntimeException e) {
+            cleanupFailures.increment();
+            log.error("Failed to remove rows of tenant {} from schema {}; they are cleared by the next move into it",
+                    tenantId, schema, e);
+            return false;
+        }
+    }
+
+    private void deleteRows(String tenantId, String schema) {
+        for (int i = TENANT_TABLES.size() - 1; i >= 0; i--) {
+            jdbcTemplate.update("DELETE FROM " + qualified(schema, TENANT_TABLES.get(i)) + " WHERE tenant_id = ?", tenantId);
+        }
+    }
+
+    private List<String> columns(String schema, String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT column_name FROM information_schema.columns WHERE table_schema = ? AND table_name = ? ORDER BY column_name",
+                String.class, schema, table);
+    }
+
+    private void migrateSchemas(List<String> schemas) {
+        if (schemas.isEmpty()) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(migrationThreads, schemas.size()),
+                new CustomizableThreadFactory("tenant-migration-"));
+        try {
+            List<Future<?>> migrations = new ArrayList<>();
+            for (String schema : schemas) {
+                migrations.add(executor.submit(() -> migrateSchema(schema)));
+            }
+            for (Future<?> migration : migrations) {
+                migration.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Tenant schema migration failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while migrating tenant schemas", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void migrateSchema(String schema) {
+        Flyway.configure()
+                .dataSource(routingDataSource.getSharedDataSource())
+                .schemas(schema)
+                .defaultSchema(schema)
+                .createSchemas(true)
+                .locations(TENANT_MIGRATIONS)
+                .placeholders(Map.of("sharedSchema", sharedSchema))
+                .load()
+                .migrate();
+    }
+
+    private HikariDataSource createPool(Placement placement) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("tenant-" + placement.tenantId());
+        config.setJdbcUrl(dataSourceProperties.determineUrl());
+        config.setUsername(dataSourceProperties.determineUsername());
+        config.setPassword(dataSourceProperties.determinePassword());
+        config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        config.setMaximumPoolSize(placement.poolSize());
+        config.setConnectionInitSql("SET search_path TO " + quote(placement.schema()) + ", " + quote(sharedSchema));
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+
+    private void close(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+    }
+
+    private String qualified(String schema, String table) {
+        return quote(schema) + "." + table;
+    }
+
+    private String quote(String identifier) {
+        return "\"" + identifier + "\"";
+    }
+}
@@ -0,0 +1,135 @@
+package com.saasplatform.tenant;
+
+import com.saasplatform.entity.Company;
+import com.saasplatform.repository.CompanyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory directory of tenants by tenant id, subdomain and custom domain. Readers see an
+ * immutable snapshot and never touch the database; writers copy the snapshot and swap it
+ * once the company change has committed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TenantRegistry {
+
+    private final CompanyRepository companyRepository;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean loaded;
+
+    public TenantDescriptor findByTenantId(String tenantId) {
+        return tenantId != null ? snapshot.byTenantId().get(tenantId) : null;
+    }
+
+    public TenantDescriptor findBySubdomain(String subdomain) {
+        String key = TenantDescriptor.normalize(subdomain);
+        return key != null ? snapshot.bySubdomain().get(key) : null;
+    }
+
+    public TenantDescriptor findByDomain(String domain) {
+        String key = TenantDescriptor.normalize(domain);
+        return key != null ? snapshot.byDomain().get(key) : null;
+    }
+
+    public List<TenantDescriptor> getAll() {
+        return List.copyOf(snapshot.byTenantId().values());
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Reload every tenant, picking up changes made by other nodes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.tenant.registry.refresh-interval-ms:300000}",
+               initialDelayString = "${app.tenant.registry.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        try {
+            Map<String, TenantDescriptor> byTenantId = new HashMap<>();
+            for (Company company : companyRepository.findAll()) {
+                if (company.getTenantId() != null) {
+                    byTenantId.put(company.getTenantId(), TenantDescriptor.from(company));
+                }
+            }
+            snapshot = Snapshot.of(byTenantId);
+            loaded = true;
+            log.debug("Tenant registry loaded with {} tenants", byTenantId.size());
+        } catch (Exception e) {
+            log.error("Failed to refresh tenant registry", e);
+        }
+    }
+
+    /**
+     * Publish a created or updated company once the surrounding transaction commits
+     */
+    public void register(Company company) {
+        TenantDescriptor descriptor = TenantDescriptor.from(company);
+        afterCommit(() -> apply(descriptor.tenantId(), descriptor));
+    }
+
+    /**
+     * Drop a deleted company once the surrounding transaction commits
+     */
+    public void unregister(String tenantId) {
+        afterCommit(() -> apply(tenantId, null));
+    }
+
+    private synchronized void apply(String tenantId, TenantDescriptor descriptor) {
+        Map<String, TenantDescriptor> byTenantId = new HashMap<>(snapshot.byTenantId());
+        if (descriptor != null) {
+            byTenantId.put(tenantId, descriptor);
+        } else {
+            byTenantId.remove(tenantId);
+        }
+        snapshot = Snapshot.of(byTenantId);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Snapshot(Map<String, TenantDescriptor> byTenantId,
+                            Map<String, TenantDescriptor> bySubdomain,
+                            Map<String, TenantDescriptor> byDomain) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of());
+
+        static Snapshot of(Map<String, TenantDescriptor> byTenantId) {
+            Map<String, TenantDescriptor> bySubdomain = new HashMap<>();
+            Map<String, TenantDescriptor> byDomain = new HashMap<>();
+            for (TenantDescriptor descriptor : byTenantId.values()) {
+                if (descriptor.subdomain() != null) {
+                    bySubdomain.put(descriptor.subdomain(), descriptor);
+                }
+                if (descriptor.domain() != null) {
+                    byDomain.put(descriptor.domain(), descriptor);
+                }
+            }
+            return new Snapshot(Map.copyOf(byTenantId), Map.copyOf(bySubdomain), Map.copyOf(byDomain));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.saasplatform.tenant;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Routes connections by the current tenant: tenants with a dedicated placement get their own
+ * pool, everyone else and tenant-less work (startup, super-admin, auth) use the shared pool.
+ * Placements can be added and removed at runtime. Once the routes have not been confirmed
+ * current for a while, tenant connections are refused rather than risk a stale placement.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final DataSource sharedDataSource;
+    private final ConcurrentMap<String, DataSource> dedicatedDataSources = new ConcurrentHashMap<>();
+    private volatile long routesCurrentUntil = Long.MAX_VALUE;
+
+    public TenantRoutingDataSource(DataSource sharedDataSource) {
+        this.sharedDataSource = sharedDataSource;
+        setTargetDataSources(Map.of());
+        setDefaultTargetDataSource(sharedDataSource);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TenantContext.getTenantId();
+    }
+
+    @Override
+    protected DataSource determineTargetDataSource() {
+        Object tenantId = determineCurrentLookupKey();
+        if (tenantId != null && System.currentTimeMillis() > routesCurrentUntil) {
+            throw new IllegalStateException("Tenant placements are out of date on this node");
+        }
+        DataSource dataSource = tenantId != null ? dedicatedDataSources.get(tenantId) : null;
+        return dataSource != null ? dataSource : sharedDataSource;
+    }
+
+    public DataSource getSharedDataSource() {
+        return sharedDataSource;
+    }
+
+    /**
+     * Confirm the routes are current until the given time, in epoch millis
+     */
+    public void markRoutesCurrentUntil(long timeMillis) {
+        routesCurrentUntil = timeMillis;
+    }
+
+    public boolean isDedicated(String tenantId) {
+        return dedicatedDataSources.containsKey(tenantId);
+    }
+
+    public void addPlacement(String tenantId, DataSource dataSource) {
+        dedicatedDataSources.put(tenantId, dataSource);
+    }
+
+    /**
+     * Route the tenant back to the shared pool, returning its dedicated pool for closing
+     */
+    public DataSource removePlacement(String tenantId) {
+        return dedicatedDataSources.remove(tenantId);
+    }
+}
@@ -0,0 +1,68 @@
+package com.saasplatform.util;
+
+import com.saasplatform.dto.EntityVersion;
+import com.saasplatform.entity.BaseEntity;
+
+/**
+ * HTTP entity tags. Single resources get strong tags from id and {@code @Version}, so the
+ * tag changes whenever Hibernate writes the row; lists get weak tags from a change counter.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static String strong(BaseEntity entity) {
+        return strong(entity.getId(), entity.getVersion());
+    }
+
+    public static String strong(EntityVersion version) {
+        return strong(version.id(), version.version());
+    }
+
+    public static String strong(Long id, Long version) {
+        return "\"" + id + "-" + (version != null ? version : 0L) + "\"";
+    }
+
+    public static String weak(String value) {
+        return "W/\"" + value + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header matches the tag, using weak comparison
+     */
+    public static boolean matches(String header, String etag) {
+        if (header == null || etag == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : header.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || opaque(trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether an If-Match header matches the tag, using strong comparison: weak tags on
+     * either side never match (RFC 9110, 13.1.1)
+     */
+    public static boolean matchesStrong(String header, String etag) {
+        if (header == null || etag == null || etag.startsWith("W/")) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
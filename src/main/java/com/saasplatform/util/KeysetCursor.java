@@ -0,0 +1,36 @@
+package com.saasplatform.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a keyset-paginated listing: the sort it belongs to, the sort value and
+ * id of the boundary row, and whether it points forward or backward from that row.
+ */
+public record KeysetCursor(String sort, String value, long id, boolean backward) {
+
+    private static final String SEPARATOR = "\n";
+    private static final int FIELDS = 4;
+
+    public String encode() {
+        // The free-text sort value goes last, so separators inside it survive decoding
+        String raw = sort + SEPARATOR + id + SEPARATOR + (backward ? "b" : "f") + SEPARATOR + (value != null ? value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, FIELDS);
+            if (parts.length != FIELDS) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new KeysetCursor(parts[0], parts[3], Long.parseLong(parts[1]), "b".equals(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.saasplatform.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * JSON merge patch (RFC 7386) onto a loaded entity: only the members present in the patch
+ * are written, and an explicit null clears the property. Combined with {@code @DynamicUpdate},
+ * Hibernate then updates just the columns whose values actually changed.
+ */
+public final class MergePatch {
+
+    private MergePatch() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the patch is not an object, names a property outside
+     *         allowedFields, or has a value of the wrong type
+     */
+    public static void apply(ObjectMapper objectMapper, Object target, JsonNode patch, Set<String> allowedFields) {
+        requireAllowed(patch, allowedFields);
+        try {
+            objectMapper.readerForUpdating(target).readValue(patch);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid patch: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    public static void requireAllowed(JsonNode patch, Set<String> allowedFields) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Patch must be a JSON object");
+        }
+        Iterator<String> fields = patch.fieldNames();
+        while (fields.hasNext()) {
+            String field = fields.next();
+            if (!allowedFields.contains(field)) {
+                throw new IllegalArgumentException("Field cannot be patched: " + field);
+            }
+        }
+    }
+}
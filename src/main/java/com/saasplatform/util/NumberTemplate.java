@@ -0,0 +1,135 @@
+package com.saasplatform.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Document number format such as {@code CUST-{yyyy}-{seq:4}}, parsed once. Supported
+ * placeholders are {yyyy}, {yy}, {MM} and {dd} for the issue date and {seq} or {seq:N}
+ * for the sequence number zero-padded to N digits; everything else is copied verbatim.
+ */
+public final class NumberTemplate {
+
+    private final String pattern;
+    private final List<Segment> segments;
+    // Matches numbers this template produces, capturing the sequence
+    private final Pattern matcher;
+
+    private NumberTemplate(String pattern, List<Segment> segments) {
+        this.pattern = pattern;
+        this.segments = segments;
+        this.matcher = compileMatcher(segments);
+    }
+
+    /**
+     * @throws IllegalArgumentException for unknown or unbalanced placeholders, or a missing {seq}
+     */
+    public static NumberTemplate parse(String pattern) {
+        List<Segment> segments = new ArrayList<>();
+        boolean hasSequence = false;
+        int i = 0;
+        while (i < pattern.length()) {
+            int open = pattern.indexOf('{', i);
+            if (open < 0) {
+                segments.add(new Segment(Kind.LITERAL, pattern.substring(i), 0));
+                break;
+            }
+            if (open > i) {
+                segments.add(new Segment(Kind.LITERAL, pattern.substring(i, open), 0));
+            }
+            int close = pattern.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unbalanced placeholder in number template: " + pattern);
+            }
+            String token = pattern.substring(open + 1, close);
+            switch (token) {
+                case "yyyy" -> segments.add(new Segment(Kind.YEAR, null, 4));
+                case "yy" -> segments.add(new Segment(Kind.YEAR, null, 2));
+                case "MM" -> segments.add(new Segment(Kind.MONTH, null, 2));
+                case "dd" -> segments.add(new Segment(Kind.DAY, null, 2));
+                default -> {
+                    if (!token.equals("seq") && !token.startsWith("seq:")) {
+                        throw new IllegalArgumentException("Unknown placeholder {" + token + "} in number template: " + pattern);
+                    }
+                    int width = token.equals("seq") ? 0 : Integer.parseInt(token.substring(4));
+                    segments.add(new Segment(Kind.SEQUENCE, null, width));
+                    hasSequence = true;
+                }
+            }
+            i = close + 1;
+        }
+        if (!hasSequence) {
+            throw new IllegalArgumentException("Number template has no {seq} placeholder: " + pattern);
+        }
+        return new NumberTemplate(pattern, List.copyOf(segments));
+    }
+
+    public String format(long sequence, LocalDate date) {
+        StringBuilder result = new StringBuilder(pattern.length() + 8);
+        for (Segment segment : segments) {
+            switch (segment.kind()) {
+                case LITERAL -> result.append(segment.text());
+                case YEAR -> pad(result, segment.width() == 2 ? date.getYear() % 100 : date.getYear(), segment.width());
+                case MONTH -> pad(result, date.getMonthValue(), 2);
+                case DAY -> pad(result, date.getDayOfMonth(), 2);
+                case SEQUENCE -> pad(result, sequence, segment.width());
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Sequence number of a number in this template's format, or -1 for other formats
+     */
+    public long sequenceOf(String number) {
+        if (number == null) {
+            return -1L;
+        }
+        Matcher match = matcher.matcher(number);
+        if (!match.matches()) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(match.group(1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    private static Pattern compileMatcher(List<Segment> segments) {
+        StringBuilder regex = new StringBuilder();
+        boolean captured = false;
+        for (Segment segment : segments) {
+            switch (segment.kind()) {
+                case LITERAL -> regex.append(Pattern.quote(segment.text()));
+                case YEAR, MONTH, DAY -> regex.append("\\d{").append(segment.width()).append('}');
+                case SEQUENCE -> {
+                    // Padding is a minimum width; a second {seq} must repeat the first
+                    regex.append(captured ? "\\1" : "(\\d+)");
+                    captured = true;
+                }
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static void pad(StringBuilder into, long value, int width) {
+        String digits = Long.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            into.append('0');
+        }
+        into.append(digits);
+    }
+
+    private enum Kind { LITERAL, YEAR, MONTH, DAY, SEQUENCE }
+
+    private record Segment(Kind kind, String text, int width) {
+    }
+}
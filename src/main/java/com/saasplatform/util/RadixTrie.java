@@ -0,0 +1,271 @@
+package com.saasplatform.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Compressed prefix tree from normalized keys to document ids, answering case-insensitive
+ * "starts with" queries. Each document may be reachable by several keys (e.g. first name,
+ * last name, full name, email). A lookup walks the prefix once and then visits the matching
+ * subtree shortest completion first, stopping as soon as enough distinct ids are found, so
+ * its cost depends on the result size rather than the number of documents.
+ * Not thread-safe; callers guard access.
+ */
+public class RadixTrie {
+
+    private static final int NODE_OVERHEAD_BYTES = 72;
+    private static final int DOCUMENT_OVERHEAD_BYTES = 64;
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+
+    private final Node root = new Node("");
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private long nodeCount = 1;
+    private long labelChars;
+    private long idEntries;
+
+    public void put(long id, String... keys) {
+        remove(id);
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String key : keys) {
+            String value = normalize(key);
+            if (!value.isEmpty()) {
+                normalized.add(value);
+            }
+        }
+        String[] stored = normalized.toArray(new String[0]);
+        documents.put(id, stored);
+        for (String key : stored) {
+            insert(key, id);
+        }
+    }
+
+    public void remove(long id) {
+        String[] existing = documents.remove(id);
+        if (existing == null) {
+            return;
+        }
+        for (String key : existing) {
+            delete(root, key, 0, id);
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Ids of documents with a key starting with the prefix, shortest matching key first
+     */
+    public List<Long> search(String prefix, int limit) {
+        String term = normalize(prefix);
+        if (term.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Node node = root;
+        int depth = 0;
+        while (depth < term.length()) {
+            int index = childIndex(node, term.charAt(depth));
+            if (index < 0) {
+                return List.of();
+            }
+            Node child = node.children[index];
+            int compare = Math.min(child.label.length(), term.length() - depth);
+            if (!child.label.regionMatches(0, term, depth, compare)) {
+                return List.of();
+            }
+            // May step past the end of the term: every key below still starts with it
+            depth += child.label.length();
+            node = child;
+        }
+
+        Set<Long> ids = new LinkedHashSet<>();
+        PriorityQueue<Pending> pending = new PriorityQueue<>();
+        long sequence = 0;
+        pending.add(new Pending(node, depth, sequence++));
+        while (!pending.isEmpty() && ids.size() < limit) {
+            Pending next = pending.poll();
+            for (long id : next.node.ids) {
+                ids.add(id);
+                if (ids.size() == limit) {
+                    break;
+                }
+            }
+            for (Node child : next.node.children) {
+                pending.add(new Pending(child, next.length + child.label.length(), sequence++));
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    public long estimatedBytes() {
+        return nodeCount * NODE_OVERHEAD_BYTES + labelChars * 2 + idEntries * 8
+                + (long) documents.size() * DOCUMENT_OVERHEAD_BYTES;
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private void insert(String key, long id) {
+        Node node = root;
+        int depth = 0;
+        while (depth < key.length()) {
+            int index = childIndex(node, key.charAt(depth));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(depth));
+                node.children = insertChild(node.children, -index - 1, leaf);
+                nodeCount++;
+                labelChars += leaf.label.length();
+                node = leaf;
+                depth = key.length();
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, depth);
+            if (common < child.label.length()) {
+                // Split the edge at the point where the key diverges
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = new Node[]{child};
+                node.children[index] = split;
+                nodeCount++;
+                child = split;
+            }
+            node = child;
+            depth += common;
+        }
+        int position = Arrays.binarySearch(node.ids, id);
+        if (position < 0) {
+            node.ids = insertId(node.ids, -position - 1, id);
+            idEntries++;
+        }
+    }
+
+    /**
+     * Remove id from the key's node, pruning and re-merging nodes left without ids
+     *
+     * @return true if node itself is now empty and can be dropped by its parent
+     */
+    private boolean delete(Node node, String key, int depth, long id) {
+        if (depth == key.length()) {
+            int position = Arrays.binarySearch(node.ids, id);
+            if (position >= 0) {
+                node.ids = removeId(node.ids, position);
+                idEntries--;
+            }
+        } else {
+            int index = childIndex(node, key.charAt(depth));
+            if (index < 0) {
+                return false;
+            }
+            Node child = node.children[index];
+            if (!key.startsWith(child.label, depth)) {
+                return false;
+            }
+            if (delete(child, key, depth + child.label.length(), id)) {
+                node.children = removeChild(node.children, index);
+                nodeCount--;
+                labelChars -= child.label.length();
+            } else if (child.ids.length == 0 && child.children.length == 1) {
+                // Fold a pass-through node into its only child
+                Node only = child.children[0];
+                only.label = child.label + only.label;
+                node.children[index] = only;
+                nodeCount--;
+            }
+        }
+        return node != root && node.ids.length == 0 && node.children.length == 0;
+    }
+
+    private static int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char c = node.children[mid].label.charAt(0);
+            if (c < first) {
+                low = mid + 1;
+            } else if (c > first) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Node[] insertChild(Node[] children, int index, Node child) {
+        Node[] grown = new Node[children.length + 1];
+        System.arraycopy(children, 0, grown, 0, index);
+        grown[index] = child;
+        System.arraycopy(children, index, grown, index + 1, children.length - index);
+        return grown;
+    }
+
+    private static Node[] removeChild(Node[] children, int index) {
+        if (children.length == 1) {
+            return NO_CHILDREN;
+        }
+        Node[] shrunk = new Node[children.length - 1];
+        System.arraycopy(children, 0, shrunk, 0, index);
+        System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+        return shrunk;
+    }
+
+    private static long[] insertId(long[] ids, int index, long id) {
+        long[] grown = new long[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, index);
+        grown[index] = id;
+        System.arraycopy(ids, index, grown, index + 1, ids.length - index);
+        return grown;
+    }
+
+    private static long[] removeId(long[] ids, int index) {
+        if (ids.length == 1) {
+            return NO_IDS;
+        }
+        long[] shrunk = new long[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, index);
+        System.arraycopy(ids, index + 1, shrunk, index, ids.length - index - 1);
+        return shrunk;
+    }
+
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        // Sorted; ids whose key ends exactly at this node
+        private long[] ids = NO_IDS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private record Pending(Node node, int length, long sequence) implements Comparable<Pending> {
+        @Override
+        public int compareTo(Pending other) {
+            return length != other.length ? Integer.compare(length, other.length) : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.saasplatform.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache split into independently locked LRU stripes, so concurrent readers of
+ * different keys rarely contend; even a read reorders an access-ordered map and needs the
+ * lock. Each stripe holds an equal share of the capacity and evicts its own least recently
+ * used entry in O(1), so eviction is approximately LRU across the whole cache.
+ */
+public class StripedLruCache<K, V> {
+
+    private final Map<K, V>[] stripes;
+    private final int stripeMask;
+
+    @SuppressWarnings("unchecked")
+    public StripedLruCache(int maxSize, int stripes) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(stripes, Math.max(1, maxSize))));
+        int stripeSize = Math.max(1, maxSize / stripeCount);
+        this.stripes = new Map[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    return size() > stripeSize;
+                }
+            };
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    public V get(K key) {
+        Map<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    public void put(K key, V value) {
+        Map<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+    }
+
+    /**
+     * Remove the key only while it still maps to the value
+     */
+    public void remove(K key, V value) {
+        Map<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.remove(key, value);
+        }
+    }
+
+    private Map<K, V> stripeFor(K key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return stripes[h & stripeMask];
+    }
+}
@@ -0,0 +1,124 @@
+package com.saasplatform.util;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock-striped token buckets over a fixed table of slots. Keys are hashed onto a slot, so
+ * memory stays bounded and acquiring allocates nothing; keys that collide share a bucket,
+ * which can only make the limit stricter, never looser. Slots come from SipHash-2-4 under a
+ * random per-instance key, so clients cannot craft keys that land in another client's bucket.
+ */
+public class TokenBucketLimiter {
+
+    private final double[] tokens;
+    private final long[] lastRefillNanos;
+    private final ReentrantLock[] locks;
+    private final int slotMask;
+    private final int stripeMask;
+    private final double burst;
+    private final double tokensPerNano;
+    private final long hashKey0;
+    private final long hashKey1;
+
+    public TokenBucketLimiter(int slots, int stripes, double burst, double refillPerSecond) {
+        if (burst < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Burst must be at least 1 and refill rate positive");
+        }
+        int slotCount = powerOfTwo(slots);
+        int stripeCount = Math.min(powerOfTwo(stripes), slotCount);
+        this.tokens = new double[slotCount];
+        this.lastRefillNanos = new long[slotCount];
+        this.locks = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.slotMask = slotCount - 1;
+        this.stripeMask = stripeCount - 1;
+        this.burst = burst;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        SecureRandom random = new SecureRandom();
+        this.hashKey0 = random.nextLong();
+        this.hashKey1 = random.nextLong();
+    }
+
+    /**
+     * Take one token for the key
+     *
+     * @return 0 if a token was taken, otherwise nanoseconds until one becomes available
+     */
+    public long tryAcquire(String key) {
+        int slot = (int) hash(key) & slotMask;
+        ReentrantLock lock = locks[slot & stripeMask];
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            double available;
+            if (lastRefillNanos[slot] == 0L) {
+                available = burst;
+            } else {
+                available = Math.min(burst, tokens[slot] + (now - lastRefillNanos[slot]) * tokensPerNano);
+            }
+            lastRefillNanos[slot] = now == 0L ? 1L : now;
+            if (available >= 1.0) {
+                tokens[slot] = available - 1.0;
+                return 0L;
+            }
+            tokens[slot] = available;
+            return (long) Math.ceil((1.0 - available) / tokensPerNano);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * SipHash-2-4 of the key's UTF-16 code units, four per message word
+     */
+    private long hash(String key) {
+        long v0 = hashKey0 ^ 0x736f6d6570736575L;
+        long v1 = hashKey1 ^ 0x646f72616e646f6dL;
+        long v2 = hashKey0 ^ 0x6c7967656e657261L;
+        long v3 = hashKey1 ^ 0x7465646279746573L;
+        int length = key.length();
+        int words = length / 4;
+        // Message words, then the length word holding the tail, then finalization
+        for (int i = 0; i <= words + 1; i++) {
+            long m;
+            int rounds;
+            if (i < words) {
+                m = word(key, i * 4, 4);
+                rounds = 2;
+            } else if (i == words) {
+                m = ((long) (length * 2) << 56) | word(key, i * 4, length - i * 4);
+                rounds = 2;
+            } else {
+                m = 0L;
+                v2 ^= 0xffL;
+                rounds = 4;
+            }
+            v3 ^= m;
+            for (int r = 0; r < rounds; r++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    private static long word(String key, int offset, int chars) {
+        long word = 0L;
+        for (int j = 0; j < chars; j++) {
+            word |= (long) key.charAt(offset + j) << (16 * j);
+        }
+        return word;
+    }
+
+    private static int powerOfTwo(int value) {
+        int n = Math.max(1, Math.min(value, 1 << 30));
+        return Integer.highestOneBit(n) == n ? n : Integer.highestOneBit(n) << 1;
+    }
+}
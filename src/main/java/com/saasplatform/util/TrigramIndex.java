@@ -0,0 +1,199 @@
+package com.saasplatform.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from character trigrams to document ids, answering case-insensitive
+ * "contains" queries over a few short text fields. Trigram postings narrow the candidates,
+ * which are then verified against the stored text and ranked by field weight, with a bonus
+ * for prefix matches. Terms shorter than a trigram scan the stored text instead.
+ * Not thread-safe; callers guard access.
+ */
+public class TrigramIndex {
+
+    private static final int DOCUMENT_OVERHEAD_BYTES = 64;
+    private static final int POSTINGS_OVERHEAD_BYTES = 80;
+
+    private final int[] fieldWeights;
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private long textChars;
+    private long postingEntries;
+
+    /**
+     * @param fieldWeights ranking weight of each indexed field, in the order fields are passed to {@link #put}
+     */
+    public TrigramIndex(int... fieldWeights) {
+        this.fieldWeights = fieldWeights.clone();
+    }
+
+    public void put(long id, String... fields) {
+        remove(id);
+        String[] normalized = new String[fieldWeights.length];
+        for (int i = 0; i < normalized.length; i++) {
+            normalized[i] = i < fields.length ? normalize(fields[i]) : "";
+            textChars += normalized[i].length();
+        }
+        documents.put(id, normalized);
+        for (long trigram : trigrams(normalized)) {
+            postings.computeIfAbsent(trigram, key -> new Postings()).add(id);
+            postingEntries++;
+        }
+    }
+
+    public void remove(long id) {
+        String[] existing = documents.remove(id);
+        if (existing == null) {
+            return;
+        }
+        for (String field : existing) {
+            textChars -= field.length();
+        }
+        for (long trigram : trigrams(existing)) {
+            Postings list = postings.get(trigram);
+            if (list != null && list.remove(id)) {
+                postingEntries--;
+                if (list.size == 0) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ids of documents with a field containing the term, best match first
+     */
+    public List<Long> search(String term) {
+        String needle = normalize(term);
+        if (needle.isEmpty()) {
+            return List.of();
+        }
+
+        List<long[]> scored = new ArrayList<>();
+        if (needle.length() < 3) {
+            for (Map.Entry<Long, String[]> entry : documents.entrySet()) {
+                collect(entry.getKey(), entry.getValue(), needle, scored);
+            }
+        } else {
+            Set<Long> queryTrigrams = new HashSet<>();
+            addTrigrams(needle, queryTrigrams);
+            Postings[] lists = new Postings[queryTrigrams.size()];
+            int n = 0;
+            for (long trigram : queryTrigrams) {
+                Postings list = postings.get(trigram);
+                if (list == null) {
+                    return List.of();
+                }
+                lists[n++] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            Postings smallest = lists[0];
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                long id = smallest.ids[i];
+                for (int j = 1; j < lists.length; j++) {
+                    if (!lists[j].contains(id)) {
+                        continue candidates;
+                    }
+                }
+                collect(id, documents.get(id), needle, scored);
+            }
+        }
+
+        scored.sort((a, b) -> a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(a[0], b[0]));
+        List<Long> ids = new ArrayList<>(scored.size());
+        for (long[] hit : scored) {
+            ids.add(hit[0]);
+        }
+        return ids;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Rough heap footprint, used to keep a set of indexes within a memory budget
+     */
+    public long estimatedBytes() {
+        return documents.size() * (long) DOCUMENT_OVERHEAD_BYTES
+                + textChars * 2
+                + postings.size() * (long) POSTINGS_OVERHEAD_BYTES
+                + postingEntries * Long.BYTES;
+    }
+
+    private void collect(long id, String[] fields, String needle, List<long[]> scored) {
+        long score = 0;
+        for (int i = 0; i < fields.length; i++) {
+            int at = fields[i].indexOf(needle);
+            if (at >= 0) {
+                score += at == 0 ? fieldWeights[i] * 2L : fieldWeights[i];
+            }
+        }
+        if (score > 0) {
+            scored.add(new long[] {id, score});
+        }
+    }
+
+    private static Set<Long> trigrams(String[] fields) {
+        Set<Long> result = new HashSet<>();
+        for (String field : fields) {
+            addTrigrams(field, result);
+        }
+        return result;
+    }
+
+    private static void addTrigrams(String text, Set<Long> into) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            into.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Sorted id list; ids are mostly assigned in increasing order, so adds are usually appends
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            int insertAt = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
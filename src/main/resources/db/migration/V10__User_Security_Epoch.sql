@@ -0,0 +1,4 @@
+-- Bumped on password, status and role changes; access and refresh tokens carry the value
+-- current at issue and are rejected once it moves on, on every node and across restarts
+
+ALTER TABLE users ADD COLUMN security_epoch BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,18 @@
+-- Customer import jobs, written by the worker running the import and read by status polls on any node
+
+CREATE TABLE customer_import_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    tenant_id VARCHAR(255) NOT NULL,
+    format VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    processed_rows BIGINT NOT NULL DEFAULT 0,
+    imported_rows BIGINT NOT NULL DEFAULT 0,
+    failed_rows BIGINT NOT NULL DEFAULT 0,
+    errors TEXT,
+    message TEXT,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+CREATE INDEX idx_customer_import_jobs_finished_at ON customer_import_jobs(finished_at);
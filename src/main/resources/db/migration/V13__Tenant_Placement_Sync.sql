@@ -0,0 +1,21 @@
+-- Cluster-wide placement changes: every change to tenant_placements or tenant_placement_moves
+-- bumps the version, and each node records the version it has applied
+
+CREATE TABLE tenant_placement_version (
+    id INTEGER PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO tenant_placement_version (id, version) VALUES (1, 0);
+
+-- Tenants being moved between placements; every node holds back their writes
+CREATE TABLE tenant_placement_moves (
+    tenant_id VARCHAR(255) PRIMARY KEY,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE tenant_placement_nodes (
+    node_id VARCHAR(36) PRIMARY KEY,
+    applied_version BIGINT NOT NULL,
+    synced_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,8 @@
+-- Tenants served from a dedicated schema instead of the shared one
+
+CREATE TABLE tenant_placements (
+    tenant_id VARCHAR(255) PRIMARY KEY,
+    schema_name VARCHAR(63) NOT NULL UNIQUE,
+    pool_size INTEGER,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
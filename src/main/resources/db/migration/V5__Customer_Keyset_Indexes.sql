@@ -0,0 +1,8 @@
+-- Composite indexes backing keyset pagination of customers; id breaks ties in every sort order
+
+CREATE INDEX idx_customers_tenant_id_id ON customers(tenant_id, id);
+CREATE INDEX idx_customers_tenant_company_name_id ON customers(tenant_id, company_name, id);
+CREATE INDEX idx_customers_tenant_created_at_id ON customers(tenant_id, created_at, id);
+
+-- Covered by the leading column of idx_customers_tenant_id_id
+DROP INDEX idx_customers_tenant_id;
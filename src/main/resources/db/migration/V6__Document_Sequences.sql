@@ -0,0 +1,20 @@
+-- Per-tenant counters for customer, quote and booking numbers; nodes reserve blocks from next_value
+
+CREATE TABLE document_sequences (
+    id BIGSERIAL PRIMARY KEY,
+    tenant_id VARCHAR(255) NOT NULL,
+    document_type VARCHAR(50) NOT NULL,
+    next_value BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0,
+    UNIQUE (tenant_id, document_type)
+);
+
+-- Document numbers are unique within a tenant
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS customer_number VARCHAR(255);
+CREATE UNIQUE INDEX idx_customers_tenant_customer_number ON customers(tenant_id, customer_number);
+CREATE UNIQUE INDEX idx_quotes_tenant_quote_number ON quotes(tenant_id, quote_number);
+CREATE UNIQUE INDEX idx_bookings_tenant_booking_number ON bookings(tenant_id, booking_number);
@@ -0,0 +1,8 @@
+-- Indexes for combined customer filtering; equality criteria lead after the tenant
+
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS customer_type VARCHAR(50);
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS next_follow_up_date DATE;
+
+CREATE INDEX idx_customers_tenant_status ON customers(tenant_id, status);
+CREATE INDEX idx_customers_tenant_customer_type ON customers(tenant_id, customer_type);
+CREATE INDEX idx_customers_tenant_next_follow_up ON customers(tenant_id, next_follow_up_date);
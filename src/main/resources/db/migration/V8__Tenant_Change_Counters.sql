@@ -0,0 +1,14 @@
+-- Per-tenant, per-table change counters backing list ETags; bumped after each committed write
+
+CREATE TABLE tenant_change_counters (
+    id BIGSERIAL PRIMARY KEY,
+    tenant_id VARCHAR(255) NOT NULL,
+    table_name VARCHAR(100) NOT NULL,
+    counter BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0,
+    UNIQUE (tenant_id, table_name)
+);
@@ -0,0 +1,7 @@
+-- Keyset pagination of the cross-tenant user directory seeks on (tenant_id, id)
+
+CREATE INDEX idx_users_tenant_id_id ON users(tenant_id, id);
+CREATE INDEX idx_users_last_login ON users(last_login);
+
+-- Covered by the leading column of idx_users_tenant_id_id
+DROP INDEX idx_users_tenant_id;
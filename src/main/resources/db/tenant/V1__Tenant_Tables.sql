@@ -0,0 +1,155 @@
+-- Tenant-owned tables for a dedicated tenant schema.
+-- Ids draw from the shared sequences so rows keep their ids when a tenant moves between
+-- placements; companies and users stay in the shared schema and are referenced there.
+-- ${sharedSchema} is the shared schema's name, supplied as a Flyway placeholder.
+
+-- Customers table
+CREATE TABLE customers (
+    id BIGINT PRIMARY KEY DEFAULT nextval('${sharedSchema}.customers_id_seq'),
+    tenant_id VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    phone VARCHAR(50),
+    address TEXT,
+    city VARCHAR(100),
+    state VARCHAR(100),
+    zip_code VARCHAR(20),
+    country VARCHAR(100),
+    company_name VARCHAR(255),
+    tax_id VARCHAR(100),
+    status VARCHAR(50) NOT NULL DEFAULT 'ACTIVE',
+    credit_limit DECIMAL(19,2),
+    payment_terms VARCHAR(255),
+    notes TEXT,
+    last_contact_date TIMESTAMP,
+    total_revenue DECIMAL(19,2) DEFAULT 0,
+    company_id BIGINT NOT NULL REFERENCES ${sharedSchema}.companies(id),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0
+);
+
+-- Leads table
+CREATE TABLE leads (
+    id BIGINT PRIMARY KEY DEFAULT nextval('${sharedSchema}.leads_id_seq'),
+    tenant_id VARCHAR(255) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    customer_name VARCHAR(255) NOT NULL,
+    customer_email VARCHAR(255) NOT NULL,
+    customer_phone VARCHAR(50),
+    customer_address TEXT,
+    status VARCHAR(50) NOT NULL DEFAULT 'NEW',
+    priority VARCHAR(50) NOT NULL DEFAULT 'MEDIUM',
+    estimated_value DECIMAL(19,2),
+    source VARCHAR(100),
+    assigned_to VARCHAR(255),
+    due_date TIMESTAMP,
+    notes TEXT,
+    tags VARCHAR(500),
+    company_id BIGINT NOT NULL REFERENCES ${sharedSchema}.companies(id),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0
+);
+
+-- Quotes table
+CREATE TABLE quotes (
+    id BIGINT PRIMARY KEY DEFAULT nextval('${sharedSchema}.quotes_id_seq'),
+    tenant_id VARCHAR(255) NOT NULL,
+    quote_number VARCHAR(255) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    lead_id BIGINT REFERENCES leads(id),
+    customer_id BIGINT REFERENCES customers(id),
+    subtotal DECIMAL(19,2) DEFAULT 0,
+    tax_rate DECIMAL(5,4) DEFAULT 0,
+    tax_amount DECIMAL(19,2) DEFAULT 0,
+    discount_amount DECIMAL(19,2) DEFAULT 0,
+    total DECIMAL(19,2) NOT NULL DEFAULT 0,
+    status VARCHAR(50) NOT NULL DEFAULT 'DRAFT',
+    valid_until TIMESTAMP,
+    sent_date TIMESTAMP,
+    customer_response_date TIMESTAMP,
+    customer_notes TEXT,
+    internal_notes TEXT,
+    approval_token VARCHAR(255),
+    approval_token_expires TIMESTAMP,
+    company_id BIGINT NOT NULL REFERENCES ${sharedSchema}.companies(id),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0
+);
+
+-- Quote items table
+CREATE TABLE quote_items (
+    id BIGINT PRIMARY KEY DEFAULT nextval('${sharedSchema}.quote_items_id_seq'),
+    tenant_id VARCHAR(255) NOT NULL,
+    description VARCHAR(500) NOT NULL,
+    quantity DECIMAL(19,2) NOT NULL DEFAULT 1,
+    unit_price DECIMAL(19,2) NOT NULL DEFAULT 0,
+    total DECIMAL(19,2) NOT NULL DEFAULT 0,
+    notes TEXT,
+    quote_id BIGINT NOT NULL REFERENCES quotes(id) ON DELETE CASCADE,
+    company_id BIGINT NOT NULL REFERENCES ${sharedSchema}.companies(id),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0
+);
+
+-- Bookings table
+CREATE TABLE bookings (
+    id BIGINT PRIMARY KEY DEFAULT nextval('${sharedSchema}.bookings_id_seq'),
+    tenant_id VARCHAR(255) NOT NULL,
+    booking_number VARCHAR(255) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    quote_id BIGINT REFERENCES quotes(id),
+    customer_id BIGINT NOT NULL REFERENCES customers(id),
+    scheduled_date TIMESTAMP NOT NULL,
+    estimated_duration_minutes INTEGER,
+    actual_start_time TIMESTAMP,
+    actual_end_time TIMESTAMP,
+    status VARCHAR(50) NOT NULL DEFAULT 'SCHEDULED',
+    assigned_staff_id VARCHAR(255),
+    total_amount DECIMAL(19,2),
+    deposit_amount DECIMAL(19,2),
+    balance_amount DECIMAL(19,2),
+    customer_notes TEXT,
+    internal_notes TEXT,
+    reminder_sent_48h BOOLEAN DEFAULT FALSE,
+    reminder_sent_24h BOOLEAN DEFAULT FALSE,
+    reminder_sent_1h BOOLEAN DEFAULT FALSE,
+    company_id BIGINT NOT NULL REFERENCES ${sharedSchema}.companies(id),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0
+);
+
+-- Indexes
+CREATE INDEX idx_customers_tenant_id ON customers(tenant_id);
+CREATE INDEX idx_customers_email ON customers(email);
+CREATE INDEX idx_customers_company_id ON customers(company_id);
+CREATE INDEX idx_leads_tenant_id ON leads(tenant_id);
+CREATE INDEX idx_leads_company_id ON leads(company_id);
+CREATE INDEX idx_leads_status ON leads(status);
+CREATE INDEX idx_quotes_tenant_id ON quotes(tenant_id);
+CREATE INDEX idx_quotes_company_id ON quotes(company_id);
+CREATE INDEX idx_quotes_status ON quotes(status);
+CREATE INDEX idx_quote_items_tenant_id ON quote_items(tenant_id);
+CREATE INDEX idx_quote_items_quote_id ON quote_items(quote_id);
+CREATE INDEX idx_bookings_tenant_id ON bookings(tenant_id);
+CREATE INDEX idx_bookings_company_id ON bookings(company_id);
+CREATE INDEX idx_bookings_scheduled_date ON bookings(scheduled_date);
+CREATE INDEX idx_bookings_status ON bookings(status);
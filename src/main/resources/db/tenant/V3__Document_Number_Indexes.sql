@@ -0,0 +1,6 @@
+-- Document numbers are unique within a tenant; counters stay in the shared document_sequences table
+
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS customer_number VARCHAR(255);
+CREATE UNIQUE INDEX idx_customers_tenant_customer_number ON customers(tenant_id, customer_number);
+CREATE UNIQUE INDEX idx_quotes_tenant_quote_number ON quotes(tenant_id, quote_number);
+CREATE UNIQUE INDEX idx_bookings_tenant_booking_number ON bookings(tenant_id, booking_number);
@@ -0,0 +1,2 @@
+-- Case-insensitive existing-email checks of customer imports
+CREATE INDEX idx_customers_tenant_lower_email ON customers(tenant_id, LOWER(email));